@@ -0,0 +1,93 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Wall cast on the Vector API: a group of adjacent columns marches in lockstep, one lane per
+ * column. Every lane takes the same steps as {@link RayKernel#cast}, so the hits are identical.
+ * Cells are kept as whole doubles, because JDK 17 does not compile the double to int lane
+ * conversion into vector code; only the map lookup runs lane by lane.
+ * Built separately with {@code --add-modules jdk.incubator.vector} and loaded by
+ * {@link RayKernel#create()}.
+ */
+final class VectorRayKernel implements WallCaster {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    // Adding and subtracting 2^52 rounds a non-negative double below 2^51 to a whole number.
+    private static final double ROUND = 0x1.0p52;
+
+    private double[] flatMap = new double[0];
+    private final double[] cellIndex = new double[DOUBLES.length()];
+    private final double[] sampled = new double[DOUBLES.length()];
+
+    @Override
+    public void cast(int[][] map, double posX, double posY, RayHits hits) {
+        int mapW = map[0].length;
+        int mapH = map.length;
+        // Copied every frame: edits are written into the grid in place.
+        if (flatMap.length != mapW * mapH) {
+            flatMap = new double[mapW * mapH];
+        }
+        for (int y = 0; y < mapH; y++) {
+            for (int x = 0; x < mapW; x++) {
+                flatMap[y * mapW + x] = map[y][x];
+            }
+        }
+
+        int width = hits.distance.length;
+        int lanes = DOUBLES.length();
+        for (int col = 0; col < width; col += lanes) {
+            VectorMask<Double> inRange = DOUBLES.indexInRange(col, width);
+            DoubleVector rayCos = DoubleVector.fromArray(DOUBLES, hits.rayCos, col, inRange);
+            DoubleVector raySin = DoubleVector.fromArray(DOUBLES, hits.raySin, col, inRange);
+
+            DoubleVector distance = DoubleVector.broadcast(DOUBLES, Raycaster.MAX_DEPTH);
+            DoubleVector tile = DoubleVector.zero(DOUBLES);
+            DoubleVector cellX = DoubleVector.broadcast(DOUBLES, (int) posX);
+            DoubleVector lastCellX = cellX;
+            DoubleVector cellY = DoubleVector.broadcast(DOUBLES, (int) posY);
+            VectorMask<Double> marching = inRange;
+
+            // All lanes share the distance, so it advances exactly like the scalar march.
+            for (double step = 0.0; step < Raycaster.MAX_DEPTH && marching.anyTrue(); step += Raycaster.STEP) {
+                DoubleVector sampleX = rayCos.mul(step).add(posX);
+                DoubleVector sampleY = raySin.mul(step).add(posY);
+                marching = marching
+                    .and(sampleX.compare(VectorOperators.GE, 0.0))
+                    .and(sampleX.compare(VectorOperators.LT, mapW))
+                    .and(sampleY.compare(VectorOperators.GE, 0.0))
+                    .and(sampleY.compare(VectorOperators.LT, mapH));
+
+                lastCellX = lastCellX.blend(cellX, marching);
+                cellX = cellX.blend(floor(sampleX), marching);
+                cellY = cellY.blend(floor(sampleY), marching);
+                cellY.mul(mapW).add(cellX).intoArray(cellIndex, 0);
+                long moving = marching.toLong();
+                for (int lane = 0; lane < lanes; lane++) {
+                    sampled[lane] = (moving & (1L << lane)) != 0 ? flatMap[(int) cellIndex[lane]] : 0.0;
+                }
+
+                DoubleVector found = DoubleVector.fromArray(DOUBLES, sampled, 0);
+                VectorMask<Double> hit = found.compare(VectorOperators.NE, 0.0);
+                tile = tile.blend(found, hit);
+                distance = distance.blend(step, hit);
+                marching = marching.andNot(hit);
+            }
+
+            distance.intoArray(hits.distance, col, inRange);
+            VectorMask<Double> crossedX = lastCellX.compare(VectorOperators.NE, cellX);
+            for (int lane = 0; lane < lanes && col + lane < width; lane++) {
+                hits.tile[col + lane] = (int) tile.lane(lane);
+                hits.cellX[col + lane] = (int) cellX.lane(lane);
+                hits.cellY[col + lane] = (int) cellY.lane(lane);
+                hits.crossedX[col + lane] = crossedX.laneIsSet(lane);
+            }
+        }
+    }
+
+    // Same as (int) v for the in-map samples, which are never negative.
+    private static DoubleVector floor(DoubleVector v) {
+        DoubleVector rounded = v.add(ROUND).sub(ROUND);
+        return rounded.blend(rounded.sub(1.0), rounded.compare(VectorOperators.GT, v));
+    }
+}
@@ -0,0 +1,264 @@
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+/**
+ * Micro benchmarks for the hot paths, run with {@code java -cp src Benchmarks <name>}.
+ * Benchmarks that exercise a correctness condition check it as they go and exit with status 1
+ * if it does not hold.
+ */
+public class Benchmarks {
+    public static void main(String[] args) {
+        String name = args.length > 0 ? args[0] : "rays";
+        switch (name) {
+            case "rays":
+                rays(args.length > 1 ? Integer.parseInt(args[1]) : 640);
+                break;
+            case "movers":
+                movers(args.length > 1 ? Integer.parseInt(args[1]) : 4096);
+                break;
+            case "sprites":
+                sprites(args.length > 1 ? Integer.parseInt(args[1]) : 500);
+                break;
+            case "split":
+                split(args.length > 1 ? Integer.parseInt(args[1]) : 1280, args.length > 2 ? Integer.parseInt(args[2]) : 720);
+                break;
+            default:
+                System.err.println("Unknown benchmark: " + name + " (available: rays, movers, sprites, split)");
+                System.exit(2);
+        }
+    }
+
+    /**
+     * Scalar wall march against the Vector API kernel, one core, on random open poses of the
+     * default maze. Every column of both casts must agree on distance, tile, cell and crossed
+     * side, including at a width that leaves a partial vector group. Without the vector kernel
+     * only the scalar march is timed.
+     */
+    private static void rays(int width) {
+        int[][] maze = GraphStorage.getInstance().getGraph(1);
+        float[][] poses = randomPoses(maze, 256, 42L);
+        WallCaster vector = RayKernel.createVector();
+        if (vector != null) {
+            for (int w : new int[] {width, width - 1}) {
+                String mismatch = compareCasts(maze, poses, vector, w);
+                if (mismatch != null) {
+                    System.out.println("Vector kernel differs from the scalar march: " + mismatch);
+                    System.exit(1);
+                }
+            }
+        }
+
+        double scalar = castRate(maze, poses, RayKernel.SCALAR, width);
+        System.out.printf("Scalar march: %8.2f Mcolumns/s%n", scalar);
+        if (vector == null) {
+            System.out.println("Vector kernel: not available (build src-vector/ and run with --add-modules jdk.incubator.vector)");
+            return;
+        }
+        double vectorRate = castRate(maze, poses, vector, width);
+        System.out.printf("Vector kernel: %8.2f Mcolumns/s (%.2fx the scalar march)%n", vectorRate, vectorRate / scalar);
+    }
+
+    private static String compareCasts(int[][] map, float[][] poses, WallCaster vector, int width) {
+        RayHits expected = new RayHits();
+        RayHits actual = new RayHits();
+        for (float[] pose : poses) {
+            double rad = Math.toRadians(pose[2]);
+            expected.prepare(width, rad);
+            actual.prepare(width, rad);
+            RayKernel.SCALAR.cast(map, pose[0], pose[1], expected);
+            vector.cast(map, pose[0], pose[1], actual);
+            for (int col = 0; col < width; col++) {
+                if (expected.distance[col] != actual.distance[col] || expected.tile[col] != actual.tile[col]
+                        || expected.cellX[col] != actual.cellX[col] || expected.cellY[col] != actual.cellY[col]
+                        || expected.crossedX[col] != actual.crossedX[col]) {
+                    return String.format("width %d, pose (%.3f, %.3f, %.1f), column %d", width, pose[0], pose[1], pose[2], col);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static double castRate(int[][] map, float[][] poses, WallCaster caster, int width) {
+        RayHits hits = new RayHits();
+        // Warm up, then measure.
+        run(map, poses, caster, hits, width, 3);
+        long start = System.nanoTime();
+        int rounds = 10;
+        run(map, poses, caster, hits, width, rounds);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return (double) rounds * poses.length * width / seconds / 1e6;
+    }
+
+    /**
+     * Wandering agents driven through {@link Collider} with jittery time steps, including long
+     * stalls. Fails if any agent ends a tick overlapping a wall.
+     */
+    private static void movers(int count) {
+        int[][] maze = GraphStorage.getInstance().getGraph(1);
+        Random random = new Random(3L);
+        float[][] spawns = randomPoses(maze, count, 11L);
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] headings = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = (int) spawns[i][0] + 0.5f;
+            ys[i] = (int) spawns[i][1] + 0.5f;
+            headings[i] = (float) Math.toRadians(spawns[i][2]);
+        }
+        float speed = 3.0f;
+        float[] steps = new float[64];
+        for (int i = 0; i < steps.length; i++) {
+            // Mostly frame-sized steps with the occasional half-second or two-second stall.
+            steps[i] = i % 16 == 0 ? 2.0f : i % 5 == 0 ? 0.5f : 0.004f + random.nextFloat() * 0.03f;
+        }
+
+        long moves = 0;
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int tick = 0; tick < 2000; tick++) {
+            float dt = steps[tick & 63];
+            for (int i = 0; i < count; i++) {
+                float dx = (float) Math.cos(headings[i]) * speed * dt;
+                float dy = (float) Math.sin(headings[i]) * speed * dt;
+                float beforeX = xs[i];
+                float beforeY = ys[i];
+                Collider.move(maze, xs, ys, i, dx, dy, Collider.PLAYER_RADIUS);
+                if (Math.abs(xs[i] - beforeX) + Math.abs(ys[i] - beforeY) < (Math.abs(dx) + Math.abs(dy)) * 0.5f) {
+                    headings[i] += 1.3f + (i & 7) * 0.2f;
+                }
+            }
+            moves += count;
+
+            if (tick % 100 == 0) {
+                for (int i = 0; i < count; i++) {
+                    if (Collider.overlapsWall(maze, xs[i], ys[i], Collider.PLAYER_RADIUS)) {
+                        System.err.printf("Agent %d inside a wall at %.3f,%.3f after tick %d%n", i, xs[i], ys[i], tick);
+                        System.exit(1);
+                    }
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        allocated = allocatedBytes() - allocated;
+
+        for (int i = 0; i < count; i++) {
+            if (Collider.overlapsWall(maze, xs[i], ys[i], Collider.PLAYER_RADIUS)) {
+                System.err.printf("Agent %d inside a wall at %.3f,%.3f%n", i, xs[i], ys[i]);
+                System.exit(1);
+            }
+        }
+        System.out.printf("%d agents: %.2f M moves/s, no agent inside a wall%n", count, moves / seconds / 1e6);
+        if (allocated >= 0) {
+            System.out.printf("Allocated during run: %d bytes%n", allocated);
+        }
+    }
+
+    /**
+     * Full frames on the open test map with {@code count} cubes and billboards scattered in front of
+     * the camera, against the same frames without them.
+     */
+    private static void sprites(int count) {
+        System.setProperty("java.awt.headless", "true");
+        GraphStorage storage = GraphStorage.getInstance();
+        int[][] map = storage.getGraph(0);
+        LightMap lights = storage.getLightMap(0);
+        Collection collection = new Collection();
+        collection.loadTestObjects();
+        World world = new World(collection, 2.5f, 2.5f, 45.0f);
+        FrameBuffer frame = new FrameBuffer(640, 480);
+
+        Raycaster plain = new Raycaster(TextureAtlas.getInstance());
+        Raycaster crowded = new Raycaster(TextureAtlas.getInstance());
+        Color[] colors = {Color.RED, Color.GREEN, Color.BLUE, Color.ORANGE};
+        for (float[] spot : randomPoses(map, count, 5L)) {
+            Sprite.Kind kind = spot[2] < 180.0f ? Sprite.Kind.CUBE : Sprite.Kind.BILLBOARD;
+            crowded.getSprites().add(new Sprite(kind, spot[0], spot[1], 0.4, colors[(int) spot[2] % colors.length]));
+        }
+
+        double without = frameMillis(plain, frame, map, lights, world);
+        double with = frameMillis(crowded, frame, map, lights, world);
+        System.out.printf("640x480 without sprites: %6.2f ms/frame%n", without);
+        System.out.printf("640x480 with %4d sprites: %6.2f ms/frame%n", count, with);
+    }
+
+    /**
+     * One frame of the default maze split between 1 to 4 players, same total size each time.
+     */
+    private static void split(int width, int height) {
+        System.setProperty("java.awt.headless", "true");
+        GraphStorage storage = GraphStorage.getInstance();
+        int[][] maze = storage.getGraph(1);
+        LightMap lights = storage.getLightMap(1);
+        Collection collection = new Collection();
+        collection.loadTestObjects();
+        FrameBuffer frame = new FrameBuffer(width, height);
+
+        for (int players = 1; players <= SplitScreen.MAX_VIEWPORTS; players++) {
+            SplitScreen screen = new SplitScreen(collection, SplitScreen.spawnPoints(maze, players));
+            for (int i = 0; i < 30; i++) {
+                turnAll(screen, 12.0f);
+                screen.render(frame, maze, lights);
+            }
+            int frames = 120;
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                turnAll(screen, 3.0f);
+                screen.render(frame, maze, lights);
+            }
+            double millis = (System.nanoTime() - start) / 1_000_000.0 / frames;
+            System.out.printf("%dx%d, %d viewport%s: %6.2f ms/frame%n", width, height, players,
+                players == 1 ? " " : "s", millis);
+        }
+    }
+
+    private static void turnAll(SplitScreen screen, float deltaDeg) {
+        for (int i = 0; i < screen.getViewportCount(); i++) {
+            screen.getWorld(i).rotate(deltaDeg);
+        }
+    }
+
+    private static double frameMillis(Raycaster raycaster, FrameBuffer frame, int[][] map, LightMap lights, World world) {
+        // The camera turns in place so the sprites sweep through the view.
+        for (int i = 0; i < 30; i++) {
+            world.rotate(12.0f);
+            raycaster.render(frame, map, lights, world.snapshot());
+        }
+        int frames = 120;
+        long start = System.nanoTime();
+        for (int i = 0; i < frames; i++) {
+            world.rotate(3.0f);
+            raycaster.render(frame, map, lights, world.snapshot());
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / frames;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void run(int[][] map, float[][] poses, WallCaster caster, RayHits hits, int width, int rounds) {
+        for (int r = 0; r < rounds; r++) {
+            for (float[] pose : poses) {
+                hits.prepare(width, Math.toRadians(pose[2]));
+                caster.cast(map, pose[0], pose[1], hits);
+            }
+        }
+    }
+
+    private static float[][] randomPoses(int[][] map, int count, long seed) {
+        Random random = new Random(seed);
+        float[][] poses = new float[count][];
+        for (int i = 0; i < count; ) {
+            float x = 1 + random.nextFloat() * (map[0].length - 2);
+            float y = 1 + random.nextFloat() * (map.length - 2);
+            if (map[(int) y][(int) x] != 0) continue;
+            poses[i++] = new float[]{x, y, random.nextFloat() * 360.0f};
+        }
+        return poses;
+    }
+}
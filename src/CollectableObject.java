@@ -5,7 +5,7 @@ public class CollectableObject {
     private final int y;
     private final String name;
     private final Color color;
-    boolean collected = false;
+    volatile boolean collected = false;
     public CollectableObject(int x, int y, String name, Color color) {
         this.x = x;
         this.y = y;
@@ -1,15 +1,16 @@
 import java.awt.Color;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Collection {
     private final List<CollectableObject> bag;
     private final List<CollectableObject> worldObjects;
 
     public Collection() {
-        bag = new ArrayList<>();
-        worldObjects = new ArrayList<>();
+        // Written by the game tick, iterated by renderers and the UI on other threads.
+        bag = new CopyOnWriteArrayList<>();
+        worldObjects = new CopyOnWriteArrayList<>();
     }
 
     public void loadTestObjects() {
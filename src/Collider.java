@@ -0,0 +1,103 @@
+/**
+ * Moves circles through the tile grid without entering walls. A move is split into sub-steps no
+ * longer than half the radius, so even a large time step cannot skip over a one-tile wall, and each
+ * sub-step is resolved per axis: a blocked axis stops at the wall face while the other keeps going,
+ * which makes movers slide along walls instead of sticking to them. Positions live in parallel
+ * arrays so any number of movers share this code without allocating.
+ */
+public final class Collider {
+    public static final float PLAYER_RADIUS = 0.2f;
+
+    private static final float SKIN = 1e-3f;
+
+    private Collider() {
+    }
+
+    /**
+     * Moves mover {@code i} by ({@code dx}, {@code dy}), updating {@code xs[i]} and {@code ys[i]}.
+     */
+    public static void move(int[][] map, float[] xs, float[] ys, int i, float dx, float dy, float radius) {
+        long moved = move(map, xs[i], ys[i], dx, dy, radius);
+        xs[i] = packedX(moved);
+        ys[i] = packedY(moved);
+    }
+
+    /**
+     * Moves a single circle from ({@code x}, {@code y}) without touching shared state or
+     * allocating; the result is packed, read it back with {@link #packedX} and {@link #packedY}.
+     */
+    public static long move(int[][] map, float x, float y, float dx, float dy, float radius) {
+        float longest = Math.max(Math.abs(dx), Math.abs(dy));
+        if (longest != 0.0f) {
+            int steps = (int) Math.ceil(longest / (radius * 0.5f));
+            float stepX = dx / steps;
+            float stepY = dy / steps;
+            for (int s = 0; s < steps; s++) {
+                if (stepX != 0.0f) x = slideX(map, x, y, stepX, radius);
+                if (stepY != 0.0f) y = slideY(map, x, y, stepY, radius);
+            }
+        }
+        return ((long) Float.floatToRawIntBits(x) << 32) | (Float.floatToRawIntBits(y) & 0xFFFFFFFFL);
+    }
+
+    public static float packedX(long packed) {
+        return Float.intBitsToFloat((int) (packed >>> 32));
+    }
+
+    public static float packedY(long packed) {
+        return Float.intBitsToFloat((int) packed);
+    }
+
+    /**
+     * True when the circle overlaps a wall or leaves the map.
+     */
+    public static boolean overlapsWall(int[][] map, float x, float y, float radius) {
+        int minCol = (int) Math.floor(x - radius + SKIN);
+        int maxCol = (int) Math.floor(x + radius - SKIN);
+        int minRow = (int) Math.floor(y - radius + SKIN);
+        int maxRow = (int) Math.floor(y + radius - SKIN);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (isSolid(map, col, row)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static float slideX(int[][] map, float x, float y, float dx, float radius) {
+        float next = x + dx;
+        // Sub-steps are shorter than a tile, so at most one new column is entered.
+        int col = (int) Math.floor(dx > 0 ? next + radius : next - radius);
+        if (!columnBlocked(map, col, y, radius)) return next;
+        return dx > 0 ? Math.max(x, col - radius - SKIN) : Math.min(x, col + 1 + radius + SKIN);
+    }
+
+    private static float slideY(int[][] map, float x, float y, float dy, float radius) {
+        float next = y + dy;
+        int row = (int) Math.floor(dy > 0 ? next + radius : next - radius);
+        if (!rowBlocked(map, row, x, radius)) return next;
+        return dy > 0 ? Math.max(y, row - radius - SKIN) : Math.min(y, row + 1 + radius + SKIN);
+    }
+
+    private static boolean columnBlocked(int[][] map, int col, float y, float radius) {
+        int minRow = (int) Math.floor(y - radius + SKIN);
+        int maxRow = (int) Math.floor(y + radius - SKIN);
+        for (int row = minRow; row <= maxRow; row++) {
+            if (isSolid(map, col, row)) return true;
+        }
+        return false;
+    }
+
+    private static boolean rowBlocked(int[][] map, int row, float x, float radius) {
+        int minCol = (int) Math.floor(x - radius + SKIN);
+        int maxCol = (int) Math.floor(x + radius - SKIN);
+        for (int col = minCol; col <= maxCol; col++) {
+            if (isSolid(map, col, row)) return true;
+        }
+        return false;
+    }
+
+    private static boolean isSolid(int[][] map, int col, int row) {
+        return row < 0 || col < 0 || row >= map.length || col >= map[0].length || map[row][col] != 0;
+    }
+}
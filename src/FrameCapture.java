@@ -0,0 +1,191 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+
+/**
+ * Writes rendered frames to numbered files without slowing the renderer down. {@link #capture}
+ * only copies the pixels into one of a fixed number of pooled buffers; encoder threads turn them
+ * into PNG or raw RGB files in the background. When every buffer is still waiting to be written,
+ * the frame is either dropped or the renderer waits, depending on the {@link Policy}.
+ */
+public class FrameCapture implements AutoCloseable {
+    public enum Format {
+        /** One {@code <prefix>NNNNNN.png} per frame. */
+        PNG,
+        /** One {@code <prefix>NNNNNN-WxH.rgb} per frame: 3 bytes per pixel, rows top to bottom. */
+        RAW
+    }
+
+    public enum Policy {
+        /** Skip the frame and count it in {@link #getFramesDropped()}. */
+        DROP,
+        /** Wait for a buffer to be written. */
+        BLOCK
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final Format format;
+    private final Policy policy;
+    private final Semaphore slots;
+    private final ConcurrentLinkedQueue<FrameBuffer> spare = new ConcurrentLinkedQueue<>();
+    private final ExecutorService encoders;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * @param capacity number of pooled buffers, i.e. how many frames may wait to be written
+     * @param encoderThreads number of background encoders
+     */
+    public FrameCapture(Path directory, String prefix, Format format, Policy policy, int capacity, int encoderThreads) {
+        if (capacity < 1 || encoderThreads < 1) {
+            throw new IllegalArgumentException("Capacity and encoder threads must be positive");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create capture directory " + directory, e);
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.format = format;
+        this.policy = policy;
+        this.slots = new Semaphore(capacity);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.encoders = Executors.newFixedThreadPool(encoderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "FrameEncoder-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a copy of {@code frame}; the caller keeps ownership of {@code frame} itself. Returns
+     * false if the frame was dropped or the capture is closed.
+     */
+    public boolean capture(FrameBuffer frame) throws InterruptedException {
+        return reserve() && submitReserved(frame);
+    }
+
+    /**
+     * Claims room for one frame ahead of rendering it, waiting or dropping as the policy says.
+     * A true result must be followed by {@link #submitReserved} or {@link #cancelReservation}.
+     */
+    boolean reserve() throws InterruptedException {
+        if (closed) return false;
+        if (policy == Policy.BLOCK) {
+            slots.acquire();
+        } else if (!slots.tryAcquire()) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void cancelReservation() {
+        slots.release();
+    }
+
+    /**
+     * Queues a copy of {@code frame} into the room claimed by {@link #reserve()}; never blocks.
+     */
+    boolean submitReserved(FrameBuffer frame) {
+        FrameBuffer copy = spare.poll();
+        if (copy == null || copy.getWidth() != frame.getWidth() || copy.getHeight() != frame.getHeight()) {
+            copy = new FrameBuffer(frame.getWidth(), frame.getHeight());
+        }
+        System.arraycopy(frame.getPixels(), 0, copy.getPixels(), 0, copy.getPixels().length);
+        long index = sequence.getAndIncrement();
+        FrameBuffer pending = copy;
+        try {
+            encoders.execute(() -> encode(pending, index));
+        } catch (RuntimeException e) {
+            // Closed after the room was reserved.
+            release(copy);
+            return false;
+        }
+        return true;
+    }
+
+    public long getFramesWritten() {
+        return written.get();
+    }
+
+    public long getFramesDropped() {
+        return dropped.get();
+    }
+
+    public long getFramesFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting frames and waits for the queued ones to be written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encode(FrameBuffer frame, long index) {
+        try {
+            if (format == Format.PNG) {
+                Path file = directory.resolve(String.format(Locale.ROOT, "%s%06d.png", prefix, index));
+                ImageIO.write(frame.getImage(), "png", file.toFile());
+            } else {
+                Path file = directory.resolve(String.format(Locale.ROOT, "%s%06d-%dx%d.rgb",
+                    prefix, index, frame.getWidth(), frame.getHeight()));
+                writeRaw(frame, file);
+            }
+            written.incrementAndGet();
+        } catch (IOException e) {
+            // Keep going; a full disk should not take the renderer down with it.
+            if (failed.getAndIncrement() == 0) {
+                System.err.println("Frame capture failed: " + e.getMessage());
+            }
+        } finally {
+            release(frame);
+        }
+    }
+
+    private void release(FrameBuffer frame) {
+        spare.offer(frame);
+        slots.release();
+    }
+
+    private static void writeRaw(FrameBuffer frame, Path file) throws IOException {
+        int[] pixels = frame.getPixels();
+        byte[] row = new byte[frame.getWidth() * 3];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+            for (int y = 0, i = 0; y < frame.getHeight(); y++) {
+                for (int b = 0; b < row.length; b += 3, i++) {
+                    int rgb = pixels[i];
+                    row[b] = (byte) (rgb >> 16);
+                    row[b + 1] = (byte) (rgb >> 8);
+                    row[b + 2] = (byte) rgb;
+                }
+                out.write(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * Golden-image regression check for the renderer, run with
+ * {@code java -cp src GoldenImages record|verify [tolerance] [maxMismatchPercent]} from the project
+ * root. Fixed poses on maps 0 and 1 are rendered at several resolutions; {@code record} stores them
+ * under {@code golden/}, {@code verify} renders them again and compares every frame against the
+ * stored image. Any difference is written to {@code golden-diff/} as the actual frame plus an
+ * error heatmap, and verify exits with status 1 if an image has more mismatched pixels than
+ * allowed.
+ */
+public class GoldenImages {
+    private static final Path GOLDEN_DIR = Paths.get("golden");
+    private static final Path DIFF_DIR = Paths.get("golden-diff");
+
+    private static final int[][] RESOLUTIONS = {{160, 120}, {320, 240}, {640, 480}};
+
+    // graph id, x, y, angle in degrees
+    private static final float[][] POSES = {
+        {0, 5.0f, 5.0f, 45.0f},
+        {0, 15.5f, 26.5f, 270.0f},
+        {0, 26.0f, 4.0f, 150.0f},
+        {1, 1.5f, 1.5f, 90.0f},
+        {1, 5.5f, 7.5f, 180.0f},
+        {1, 3.5f, 11.5f, 0.0f},
+    };
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        String mode = args.length > 0 ? args[0] : "verify";
+        int tolerance = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        double maxMismatchPercent = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+
+        switch (mode) {
+            case "record":
+                record();
+                break;
+            case "verify":
+                if (!verify(tolerance, maxMismatchPercent)) {
+                    System.exit(1);
+                }
+                break;
+            default:
+                System.err.println("Unknown mode: " + mode + " (available: record, verify)");
+                System.exit(2);
+        }
+    }
+
+    private static void record() throws IOException {
+        Files.createDirectories(GOLDEN_DIR);
+        for (int pose = 0; pose < POSES.length; pose++) {
+            for (int[] size : RESOLUTIONS) {
+                FrameBuffer frame = render(POSES[pose], size[0], size[1]);
+                Path file = GOLDEN_DIR.resolve(name(pose, size));
+                ImageIO.write(frame.getImage(), "png", file.toFile());
+                System.out.println("Recorded " + file);
+            }
+        }
+    }
+
+    private static boolean verify(int tolerance, double maxMismatchPercent) throws IOException {
+        int failures = 0;
+        for (int pose = 0; pose < POSES.length; pose++) {
+            for (int[] size : RESOLUTIONS) {
+                String name = name(pose, size);
+                Path file = GOLDEN_DIR.resolve(name);
+                if (!Files.isRegularFile(file)) {
+                    System.out.println("MISSING " + file + " (run record first)");
+                    failures++;
+                    continue;
+                }
+                int[] expected = readPixels(file, size[0], size[1]);
+                if (expected == null) {
+                    System.out.println("FAIL    " + name + ": reference is not " + size[0] + "x" + size[1]);
+                    failures++;
+                    continue;
+                }
+
+                FrameBuffer frame = render(POSES[pose], size[0], size[1]);
+                PixelDiff.Result diff = PixelDiff.compare(expected, frame.getPixels(), size[0], size[1], tolerance);
+                boolean passed = diff.getMismatchedFraction() * 100.0 <= maxMismatchPercent;
+                if (!passed) failures++;
+                System.out.printf(Locale.ROOT, "%-7s %s differing=%d mismatched=%d (%.3f%%) max=%d mean=%.4f%n",
+                    passed ? "OK" : "FAIL", name, diff.getDiffering(), diff.getMismatched(),
+                    diff.getMismatchedFraction() * 100.0, diff.getMaxError(), diff.getMeanError());
+
+                if (diff.getDiffering() > 0) {
+                    Files.createDirectories(DIFF_DIR);
+                    String base = name.substring(0, name.length() - ".png".length());
+                    ImageIO.write(frame.getImage(), "png", DIFF_DIR.resolve(base + "-actual.png").toFile());
+                    ImageIO.write(diff.heatmap(expected), "png", DIFF_DIR.resolve(base + "-heatmap.png").toFile());
+                }
+            }
+        }
+
+        if (failures > 0) {
+            System.out.println(failures + " golden image check(s) failed; see " + DIFF_DIR + "/");
+            return false;
+        }
+        System.out.println("All golden images match");
+        return true;
+    }
+
+    private static FrameBuffer render(float[] pose, int width, int height) {
+        GraphStorage storage = GraphStorage.getInstance();
+        int graphId = (int) pose[0];
+        Collection collection = new Collection();
+        collection.loadTestObjects();
+        World world = new World(collection, pose[1], pose[2], pose[3]);
+        Raycaster raycaster = new Raycaster(TextureAtlas.getInstance());
+        FrameBuffer frame = new FrameBuffer(width, height);
+        raycaster.render(frame, storage.getGraph(graphId), storage.getLightMap(graphId), world.snapshot());
+        return frame;
+    }
+
+    private static int[] readPixels(Path file, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null || image.getWidth() != width || image.getHeight() != height) return null;
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] &= 0xFFFFFF;
+        }
+        return pixels;
+    }
+
+    private static String name(int pose, int[] size) {
+        return String.format(Locale.ROOT, "map%d-pose%d-%dx%d.png", (int) POSES[pose][0], pose, size[0], size[1]);
+    }
+}
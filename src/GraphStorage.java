@@ -1,4 +1,4 @@
-import java.io.BufferedReader;
+import java.awt.Rectangle;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -6,14 +6,50 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
 
 public class GraphStorage {
+	private static final String DEFAULT_MAZE = "DefaultMaze.txt";
+
 	private final List<int[][]> graphs;
+	private final List<LightMap> lightMaps;
+	// Source file per graph id; null for maps built in code.
+	private final List<Path> sources;
+	private final AtomicIntegerArray versions;
+	private final List<MapChangeListener> listeners = new CopyOnWriteArrayList<>();
 
 	private GraphStorage() {
-		graphs = new ArrayList<>();
-		graphs.add(buildDefaultMap());
-		graphs.add(buildDefaultMaze());
+		List<int[][]> loaded = new ArrayList<>();
+		List<LightMap> lighting = new ArrayList<>();
+		List<Path> paths = new ArrayList<>();
+		int[][] defaultMap = buildDefaultMap();
+		loaded.add(defaultMap);
+		lighting.add(new LightMap(defaultMap, Collections.emptyList(), MapData.DEFAULT_AMBIENT));
+		paths.add(null);
+
+		// Only the default maze is required; other files in the map folder may be anything.
+		List<Path> files = findMapFiles();
+		List<MapData> parsed = MapParser.parseAll(files, (file, e) -> {
+			if (file.getFileName().toString().equals(DEFAULT_MAZE)) {
+				throw e;
+			}
+			System.err.println("Skipping map " + file + ": " + e.getMessage());
+		});
+		for (int i = 0; i < files.size(); i++) {
+			MapData data = parsed.get(i);
+			if (data == null) continue;
+			loaded.add(data.getGrid());
+			lighting.add(new LightMap(data.getGrid(), data.getLights(), data.getAmbient()));
+			paths.add(files.get(i));
+		}
+
+		// A reload may swap a grid whose size changed, so reads must see the new reference.
+		graphs = new CopyOnWriteArrayList<>(loaded);
+		lightMaps = new CopyOnWriteArrayList<>(lighting);
+		sources = Collections.unmodifiableList(paths);
+		versions = new AtomicIntegerArray(graphs.size());
 	}
 
 	public static GraphStorage getInstance() {
@@ -31,6 +67,105 @@ public class GraphStorage {
 		return graphs.get(id);
 	}
 
+	public LightMap getLightMap(int id) {
+		if (id < 0 || id >= lightMaps.size()) {
+			return null;
+		}
+		return lightMaps.get(id);
+	}
+
+	public Path getSource(int id) {
+		if (id < 0 || id >= sources.size()) {
+			return null;
+		}
+		return sources.get(id);
+	}
+
+	public int indexOfSource(Path file) {
+		Path target = file.toAbsolutePath().normalize();
+		for (int i = 0; i < sources.size(); i++) {
+			Path source = sources.get(i);
+			if (source != null && source.toAbsolutePath().normalize().equals(target)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int getVersion(int id) {
+		if (id < 0 || id >= versions.length()) {
+			return -1;
+		}
+		return versions.get(id);
+	}
+
+	public void addChangeListener(MapChangeListener listener) {
+		if (listener != null) {
+			listeners.add(listener);
+		}
+	}
+
+	public void removeChangeListener(MapChangeListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Writes only the tiles of {@code data} that differ from the resident grid, rebakes the light
+	 * they affect, bumps the version and notifies listeners with the bounding box of the changed
+	 * tiles and the rebaked light region. A grid with different dimensions replaces the resident one
+	 * and marks the whole map dirty. Returns the union of both regions, or null when nothing changed.
+	 */
+	public synchronized Rectangle applyUpdate(int id, MapData data) {
+		int[][] current = getGraph(id);
+		int[][] fresh = data == null ? null : data.getGrid();
+		if (current == null || fresh == null || fresh.length == 0) {
+			return null;
+		}
+
+		Rectangle tiles;
+		Rectangle relit;
+		if (current.length != fresh.length || current[0].length != fresh[0].length) {
+			lightMaps.set(id, new LightMap(fresh, data.getLights(), data.getAmbient()));
+			graphs.set(id, fresh);
+			tiles = new Rectangle(0, 0, fresh[0].length, fresh.length);
+			relit = new Rectangle(tiles);
+		} else {
+			int minRow = Integer.MAX_VALUE, minCol = Integer.MAX_VALUE;
+			int maxRow = -1, maxCol = -1;
+			for (int r = 0; r < fresh.length; r++) {
+				int[] currentRow = current[r];
+				int[] freshRow = fresh[r];
+				for (int c = 0; c < freshRow.length; c++) {
+					if (currentRow[c] == freshRow[c]) continue;
+					currentRow[c] = freshRow[c];
+					if (r < minRow) minRow = r;
+					if (r > maxRow) maxRow = r;
+					if (c < minCol) minCol = c;
+					if (c > maxCol) maxCol = c;
+				}
+			}
+			tiles = maxRow < 0 ? null : new Rectangle(minCol, minRow, maxCol - minCol + 1, maxRow - minRow + 1);
+			relit = lightMaps.get(id).update(current, tiles, data.getLights(), data.getAmbient());
+			if (tiles == null && relit == null) {
+				return null;
+			}
+		}
+
+		int version = versions.incrementAndGet(id);
+		for (MapChangeListener listener : listeners) {
+			listener.mapChanged(id, version, copy(tiles), copy(relit));
+		}
+		Rectangle dirty = tiles == null ? new Rectangle(relit) : new Rectangle(tiles);
+		if (relit != null) {
+			dirty.add(relit);
+		}
+		return dirty;
+	}
+
+	private static Rectangle copy(Rectangle r) {
+		return r == null ? null : new Rectangle(r);
+	}
+
 	public List<int[][]> getAll() {
 		return Collections.unmodifiableList(graphs);
 	}
@@ -58,35 +193,28 @@ public class GraphStorage {
 
 		return grid;
 	}
-	private int[][] buildDefaultMaze() {
-		int size = 150;
-		int[][] grid = new int[size][size];
-
-		Path mazePath = Paths.get("mapStorage", "DefaultMaze.txt");
-		// Fallback if the game is launched from the project root's parent directory.
-		if (!Files.exists(mazePath)) {
-			mazePath = Paths.get("DefaultMaze.txt");
+	private List<Path> findMapFiles() {
+		Path mapDir = Paths.get("mapStorage");
+		// The default maze always keeps id 1; any other map file is appended in name order.
+		List<Path> files = new ArrayList<>();
+		// Fallback if the game is launched from the project root's parent directory: only the
+		// default maze is read there, never whatever else sits in the working directory.
+		if (!Files.isDirectory(mapDir)) {
+			files.add(Paths.get(DEFAULT_MAZE));
+			return files;
 		}
 
-		try (BufferedReader reader = Files.newBufferedReader(mazePath)) {
-			String line;
-			int row = 0;
-			while ((line = reader.readLine()) != null && row < size) {
-				String[] tokens = line.trim().split("\\s+");
-				int col = 0;
-				for (String token : tokens) {
-					String trimmed = token.trim();
-					if (trimmed.isEmpty()) continue;
-					if (col >= size) break;
-					grid[row][col++] = Integer.parseInt(trimmed);
-				}
-				row++;
-			}
+		files.add(mapDir.resolve(DEFAULT_MAZE));
+		try (Stream<Path> listing = Files.list(mapDir)) {
+			listing
+				.filter(p -> p.getFileName().toString().endsWith(".txt"))
+				.filter(p -> !p.getFileName().toString().equals(DEFAULT_MAZE))
+				.sorted()
+				.forEach(files::add);
 		} catch (IOException e) {
-			throw new IllegalStateException("Failed to load maze from " + mazePath.toAbsolutePath(), e);
+			throw new IllegalStateException("Failed to list maps in " + mapDir.toAbsolutePath(), e);
 		}
-
-		return grid;
+		return files;
 	}
 
 	private static class Holder {
@@ -1,24 +1,47 @@
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
+/**
+ * Keyboard input for every local player. Each player has their own keys, so all of them can move
+ * at the same time; a single player uses WASD to move and the arrow keys to turn.
+ */
 public class KeyBoard implements Runnable, KeyListener {
+    // Actions, in the order of each row of the key tables.
+    private static final int FORWARD = 0;
+    private static final int BACKWARD = 1;
+    private static final int STRAFE_LEFT = 2;
+    private static final int STRAFE_RIGHT = 3;
+    private static final int TURN_LEFT = 4;
+    private static final int TURN_RIGHT = 5;
+
+    private static final int[][] SOLO_KEYS = {
+        {KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT},
+    };
+    private static final int[][] SPLIT_KEYS = {
+        {KeyEvent.VK_W, KeyEvent.VK_S, KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_Q, KeyEvent.VK_E},
+        {KeyEvent.VK_UP, KeyEvent.VK_DOWN, KeyEvent.VK_DELETE, KeyEvent.VK_PAGE_DOWN, KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT},
+        {KeyEvent.VK_I, KeyEvent.VK_K, KeyEvent.VK_J, KeyEvent.VK_L, KeyEvent.VK_U, KeyEvent.VK_O},
+        {KeyEvent.VK_NUMPAD8, KeyEvent.VK_NUMPAD5, KeyEvent.VK_NUMPAD4, KeyEvent.VK_NUMPAD6, KeyEvent.VK_NUMPAD7, KeyEvent.VK_NUMPAD9},
+    };
+
     private final MainPanel panel;
     private final Thread moveThread;
     private final Thread rotateThread;
     private volatile boolean running = true;
 
-    private volatile boolean forward;
-    private volatile boolean backward;
-    private volatile boolean strafeLeft;
-    private volatile boolean strafeRight;
-    private volatile boolean turnLeft;
-    private volatile boolean turnRight;
+    private final int[][] keys;
+    // One bit per action held down, by player.
+    private final AtomicIntegerArray held;
 
     private final float moveSpeed = 3.0f;      // world units per second
     private final float rotateSpeed = 90.0f;   // degrees per second
 
     public KeyBoard(MainPanel panel) {
         this.panel = panel;
+        int players = panel.getPlayerCount();
+        keys = players == 1 ? SOLO_KEYS : SPLIT_KEYS;
+        held = new AtomicIntegerArray(players);
         moveThread = new Thread(this::movementLoop, "MoveLoop");
         rotateThread = new Thread(this::rotationLoop, "RotateLoop");
         moveThread.setDaemon(true);
@@ -46,16 +69,19 @@ public class KeyBoard implements Runnable, KeyListener {
             float dt = (now - last) / 1_000_000_000f;
             last = now;
 
-            float forwardAmt = 0.0f;
-            float strafeAmt = 0.0f;
+            for (int player = 0; player < held.length(); player++) {
+                int actions = held.get(player);
+                float forwardAmt = 0.0f;
+                float strafeAmt = 0.0f;
 
-            if (forward) forwardAmt += moveSpeed * dt;
-            if (backward) forwardAmt -= moveSpeed * dt;
-            if (strafeLeft) strafeAmt -= moveSpeed * dt;
-            if (strafeRight) strafeAmt += moveSpeed * dt;
+                if (isHeld(actions, FORWARD)) forwardAmt += moveSpeed * dt;
+                if (isHeld(actions, BACKWARD)) forwardAmt -= moveSpeed * dt;
+                if (isHeld(actions, STRAFE_LEFT)) strafeAmt -= moveSpeed * dt;
+                if (isHeld(actions, STRAFE_RIGHT)) strafeAmt += moveSpeed * dt;
 
-            if (forwardAmt != 0.0f || strafeAmt != 0.0f) {
-                panel.move(forwardAmt, strafeAmt);
+                if (forwardAmt != 0.0f || strafeAmt != 0.0f) {
+                    panel.move(player, forwardAmt, strafeAmt);
+                }
             }
 
             sleepBriefly();
@@ -69,12 +95,15 @@ public class KeyBoard implements Runnable, KeyListener {
             float dt = (now - last) / 1_000_000_000f;
             last = now;
 
-            float delta = 0.0f;
-            if (turnLeft) delta -= rotateSpeed * dt;
-            if (turnRight) delta += rotateSpeed * dt;
+            for (int player = 0; player < held.length(); player++) {
+                int actions = held.get(player);
+                float delta = 0.0f;
+                if (isHeld(actions, TURN_LEFT)) delta -= rotateSpeed * dt;
+                if (isHeld(actions, TURN_RIGHT)) delta += rotateSpeed * dt;
 
-            if (delta != 0.0f) {
-                panel.rotate(delta);
+                if (delta != 0.0f) {
+                    panel.rotate(player, delta);
+                }
             }
 
             sleepBriefly();
@@ -88,56 +117,36 @@ public class KeyBoard implements Runnable, KeyListener {
         }
     }
 
+    private static boolean isHeld(int actions, int action) {
+        return (actions & (1 << action)) != 0;
+    }
+
+    /**
+     * Sets or clears the action bound to {@code keyCode}; false if no player uses that key.
+     */
+    private boolean setHeld(int keyCode, boolean down) {
+        for (int player = 0; player < held.length(); player++) {
+            for (int action = 0; action < keys[player].length; action++) {
+                if (keys[player][action] != keyCode) continue;
+                int bit = 1 << action;
+                held.getAndUpdate(player, actions -> down ? actions | bit : actions & ~bit);
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void keyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
-            case KeyEvent.VK_W:
-                forward = true;
-                break;
-            case KeyEvent.VK_S:
-                backward = true;
-                break;
-            case KeyEvent.VK_A:
-                strafeLeft = true;
-                break;
-            case KeyEvent.VK_D:
-                strafeRight = true;
-                break;
-            case KeyEvent.VK_LEFT:
-                turnLeft = true;
-                break;
-            case KeyEvent.VK_RIGHT:
-                turnRight = true;
-                break;
-            default:
-                break;
+        if (setHeld(e.getKeyCode(), true)) return;
+        if (e.getKeyCode() == KeyEvent.VK_C && e.getModifiersEx() == 0) {
+            panel.toggleCapture();
         }
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        switch (e.getKeyCode()) {
-            case KeyEvent.VK_W:
-                forward = false;
-                break;
-            case KeyEvent.VK_S:
-                backward = false;
-                break;
-            case KeyEvent.VK_A:
-                strafeLeft = false;
-                break;
-            case KeyEvent.VK_D:
-                strafeRight = false;
-                break;
-            case KeyEvent.VK_LEFT:
-                turnLeft = false;
-                break;
-            case KeyEvent.VK_RIGHT:
-                turnRight = false;
-                break;
-            default:
-                break;
-        }
+        setHeld(e.getKeyCode(), false);
     }
 
     @Override
@@ -0,0 +1,183 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Light baked per tile at load time: one value for each of the four faces of a wall tile and one
+ * for the floor of an open tile, so the renderer reads a single array entry per column. Values are
+ * in 1/256 units of full light. When tiles or lights change only the area those lights reach is
+ * rebaked.
+ */
+public class LightMap {
+    public static final int FULL = 256;
+    public static final int WEST = 0;
+    public static final int EAST = 1;
+    public static final int NORTH = 2;
+    public static final int SOUTH = 3;
+    public static final int FLOOR = 4;
+
+    private static final int SLOTS = 5;
+    private static final int MAX_LIGHT = FULL * 2;
+
+    private final int width;
+    private final int height;
+    private final int[] light;
+    private int[][] grid;
+    private List<PointLight> lights;
+    private int ambient;
+
+    public LightMap(int[][] grid, List<PointLight> lights, int ambientPercent) {
+        this.grid = grid;
+        this.width = grid[0].length;
+        this.height = grid.length;
+        this.light = new int[width * height * SLOTS];
+        this.lights = new ArrayList<>(lights);
+        this.ambient = ambientPercent * FULL / 100;
+        bake(new Rectangle(0, 0, width, height));
+    }
+
+    /** Light of a tile face or, with {@link #FLOOR}, of the open tile itself; ambient outside the map. */
+    public int get(int x, int y, int slot) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return ambient;
+        return light[(y * width + x) * SLOTS + slot];
+    }
+
+    /**
+     * Rebakes after an edit. {@code dirtyTiles} are the tiles that changed (may be null) and the
+     * lights and ambient are the map's new values. Returns the region that was rebaked, or null.
+     */
+    public synchronized Rectangle update(int[][] newGrid, Rectangle dirtyTiles, List<PointLight> newLights, int ambientPercent) {
+        grid = newGrid;
+        int newAmbient = ambientPercent * FULL / 100;
+        if (newAmbient != ambient) {
+            ambient = newAmbient;
+            lights = new ArrayList<>(newLights);
+            Rectangle all = new Rectangle(0, 0, width, height);
+            bake(all);
+            return all;
+        }
+
+        Rectangle region = null;
+        if (dirtyTiles != null) {
+            // A changed tile alters its own faces and may cast or lift shadows anywhere its lights reach.
+            region = new Rectangle(dirtyTiles);
+            region.grow(1, 1);
+            for (PointLight l : lights) {
+                Rectangle reach = reach(l);
+                if (reach.intersects(dirtyTiles)) region.add(reach);
+            }
+        }
+
+        Set<PointLight> before = new HashSet<>(lights);
+        Set<PointLight> after = new HashSet<>(newLights);
+        for (PointLight l : lights) {
+            if (!after.contains(l)) region = union(region, reach(l));
+        }
+        for (PointLight l : newLights) {
+            if (!before.contains(l)) region = union(region, reach(l));
+        }
+        lights = new ArrayList<>(newLights);
+
+        if (region == null) return null;
+        region = region.intersection(new Rectangle(0, 0, width, height));
+        if (region.isEmpty()) return null;
+        bake(region);
+        return region;
+    }
+
+    private void bake(Rectangle region) {
+        List<PointLight> active = new ArrayList<>();
+        for (PointLight l : lights) {
+            if (reach(l).intersects(region) && isOpen(l.getTileX(), l.getTileY())) active.add(l);
+        }
+
+        for (int y = region.y; y < region.y + region.height; y++) {
+            for (int x = region.x; x < region.x + region.width; x++) {
+                int base = (y * width + x) * SLOTS;
+                if (grid[y][x] == 0) {
+                    light[base + FLOOR] = total(active, x + 0.5, y + 0.5, 0.0, 0.0);
+                    for (int face = 0; face < FLOOR; face++) light[base + face] = ambient;
+                } else {
+                    light[base + WEST] = isOpen(x - 1, y) ? total(active, x, y + 0.5, -1.0, 0.0) : ambient;
+                    light[base + EAST] = isOpen(x + 1, y) ? total(active, x + 1, y + 0.5, 1.0, 0.0) : ambient;
+                    light[base + NORTH] = isOpen(x, y - 1) ? total(active, x + 0.5, y, 0.0, -1.0) : ambient;
+                    light[base + SOUTH] = isOpen(x, y + 1) ? total(active, x + 0.5, y + 1, 0.0, 1.0) : ambient;
+                    light[base + FLOOR] = ambient;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ambient plus every light that reaches the point unobstructed. A non-zero normal marks a wall
+     * face: lights behind it are skipped and the rest are weighted by the angle of incidence.
+     */
+    private int total(List<PointLight> active, double px, double py, double nx, double ny) {
+        double sum = ambient;
+        for (PointLight l : active) {
+            double dx = l.getX() - px;
+            double dy = l.getY() - py;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist >= l.getRadius()) continue;
+
+            double incidence = 1.0;
+            if (nx != 0.0 || ny != 0.0) {
+                incidence = dist == 0.0 ? 1.0 : (dx * nx + dy * ny) / dist;
+                if (incidence <= 0.0) continue;
+            }
+            // Nudge the target into the open cell in front of a face so the wall itself does not occlude.
+            if (!visible(l.getX(), l.getY(), px + nx * 1e-3, py + ny * 1e-3)) continue;
+
+            double falloff = 1.0 - dist / l.getRadius();
+            sum += l.getBrightness() * FULL / 100.0 * falloff * falloff * incidence;
+        }
+        return (int) Math.min(MAX_LIGHT, sum);
+    }
+
+    /** Grid traversal from the light to the target; blocked by any wall cell on the way. */
+    private boolean visible(double x0, double y0, double x1, double y1) {
+        int cellX = (int) Math.floor(x0);
+        int cellY = (int) Math.floor(y0);
+        int endX = (int) Math.floor(x1);
+        int endY = (int) Math.floor(y1);
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepY = dy > 0 ? 1 : -1;
+        double deltaX = dx == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dx);
+        double deltaY = dy == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dy);
+        double nextX = dx == 0 ? Double.POSITIVE_INFINITY : (dx > 0 ? cellX + 1 - x0 : x0 - cellX) * deltaX;
+        double nextY = dy == 0 ? Double.POSITIVE_INFINITY : (dy > 0 ? cellY + 1 - y0 : y0 - cellY) * deltaY;
+
+        while (cellX != endX || cellY != endY) {
+            if (nextX < nextY) {
+                if (nextX > 1.0) break;
+                cellX += stepX;
+                nextX += deltaX;
+            } else {
+                if (nextY > 1.0) break;
+                cellY += stepY;
+                nextY += deltaY;
+            }
+            if (!isOpen(cellX, cellY)) return false;
+        }
+        return true;
+    }
+
+    private boolean isOpen(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && grid[y][x] == 0;
+    }
+
+    private static Rectangle reach(PointLight l) {
+        int r = l.getRadius();
+        return new Rectangle(l.getTileX() - r, l.getTileY() - r, r * 2 + 1, r * 2 + 1);
+    }
+
+    private static Rectangle union(Rectangle a, Rectangle b) {
+        if (a == null) return new Rectangle(b);
+        a.add(b);
+        return a;
+    }
+}
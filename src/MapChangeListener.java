@@ -0,0 +1,12 @@
+import java.awt.Rectangle;
+
+/**
+ * Notified when a resident map is edited. Rectangles are in tile coordinates (x = column, y = row).
+ * {@code tiles} covers every tile whose value changed and is null when only the lights changed;
+ * {@code relit} covers the light that was rebaked, which reaches past the edited tiles, and is
+ * null when no light changed. A map replaced by one of another size reports the whole map for
+ * both. Caches outside the rectangle they depend on stay valid.
+ */
+public interface MapChangeListener {
+    void mapChanged(int graphId, int version, Rectangle tiles, Rectangle relit);
+}
@@ -0,0 +1,32 @@
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything read from one map file: the tile grid and its lighting directives.
+ */
+public final class MapData {
+    public static final int DEFAULT_AMBIENT = 100;
+
+    private final int[][] grid;
+    private final List<PointLight> lights;
+    private final int ambient;
+
+    public MapData(int[][] grid, List<PointLight> lights, int ambient) {
+        this.grid = grid;
+        this.lights = Collections.unmodifiableList(lights);
+        this.ambient = ambient;
+    }
+
+    public int[][] getGrid() {
+        return grid;
+    }
+
+    public List<PointLight> getLights() {
+        return lights;
+    }
+
+    /** Light level of unlit tiles, as a percentage of full light. */
+    public int getAmbient() {
+        return ambient;
+    }
+}
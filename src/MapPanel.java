@@ -1,4 +1,5 @@
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Container;
@@ -9,7 +10,11 @@ import java.awt.RenderingHints;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
-public class MapPanel extends JPanel {
+/**
+ * Mini map of one graph that reveals the tiles the player has walked through. It listens for map
+ * edits so explored tiles survive a reload; only the edited tiles are hidden again.
+ */
+public class MapPanel extends JPanel implements MapChangeListener {
     private static final int PADDING = 6;
     private static final Color BACKDROP = new Color(0, 0, 0, 160);
     private static final Color GRID_COLOR = new Color(255, 255, 255, 30);
@@ -44,10 +49,8 @@ public class MapPanel extends JPanel {
     public void setState(int[][] newMap, float x, float y, float angleDeg) {
         if (newMap == null) return;
 
-        // Re-init visited if the map reference changed or size differs.
-        if (map != newMap || visited == null || visited.length != newMap.length || visited[0].length != newMap[0].length) {
-            map = newMap;
-            visited = new boolean[map.length][map[0].length];
+        if (map != newMap) {
+            adopt(newMap);
         }
 
         playerX = x;
@@ -57,6 +60,37 @@ public class MapPanel extends JPanel {
         repaint();
     }
 
+    /**
+     * Called on the thread that applied the edit; the visited state is only touched on the event
+     * dispatch thread. Light is not drawn here, so only the changed tiles matter.
+     */
+    @Override
+    public void mapChanged(int changedGraphId, int version, Rectangle tiles, Rectangle relit) {
+        if (changedGraphId != graphId || tiles == null) return;
+        int[][] newMap = GraphStorage.getInstance().getGraph(graphId);
+        SwingUtilities.invokeLater(() -> {
+            if (newMap == null) return;
+            adopt(newMap);
+            // Edited tiles have not been seen in their new shape yet.
+            for (int r = Math.max(0, tiles.y); r < Math.min(visited.length, tiles.y + tiles.height); r++) {
+                for (int c = Math.max(0, tiles.x); c < Math.min(visited[r].length, tiles.x + tiles.width); c++) {
+                    visited[r][c] = false;
+                }
+            }
+            repaint();
+        });
+    }
+
+    /**
+     * Switches to {@code newMap}; what was explored is kept unless the size changed.
+     */
+    private void adopt(int[][] newMap) {
+        map = newMap;
+        if (visited == null || visited.length != newMap.length || visited[0].length != newMap[0].length) {
+            visited = new boolean[newMap.length][newMap[0].length];
+        }
+    }
+
     public void setNormalBounds(Rectangle bounds) {
         normalBounds.setBounds(bounds);
         if (!expanded) {
@@ -0,0 +1,192 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+/**
+ * Parses whitespace separated tile maps straight out of the file bytes.
+ * Width and height are taken from the file itself: height is the last row holding a tile,
+ * width is the longest row. Shorter rows are padded with floor (0).
+ * Lines starting with {@code @} are directives rather than tile rows:
+ * {@code @light <col> <row> <radius> <brightness%>} places a point light and
+ * {@code @ambient <percent>} sets the light level of unlit tiles.
+ * The parser keeps no state, so any number of maps can be parsed at the same time.
+ */
+public final class MapParser {
+    // Any 9 digit number fits in an int; longer tokens are rejected instead of overflowing.
+    private static final int MAX_DIGITS = 9;
+
+    private MapParser() {
+    }
+
+    public static MapData parse(Path path) {
+        byte[] data;
+        try {
+            data = Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load map from " + path.toAbsolutePath(), e);
+        }
+        return parse(data, path.toString());
+    }
+
+    /**
+     * Parses every path on the common pool and returns the maps in the same order. A file that
+     * fails to parse is handed to {@code onFailure}, which may rethrow; otherwise its entry is null.
+     */
+    public static List<MapData> parseAll(List<Path> paths, BiConsumer<Path, RuntimeException> onFailure) {
+        List<CompletableFuture<MapData>> pending = new ArrayList<>(paths.size());
+        for (Path path : paths) {
+            pending.add(CompletableFuture.supplyAsync(() -> parse(path)));
+        }
+
+        List<MapData> maps = new ArrayList<>(paths.size());
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                maps.add(pending.get(i).join());
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                onFailure.accept(paths.get(i), cause);
+                maps.add(null);
+            }
+        }
+        return maps;
+    }
+
+    static MapData parse(byte[] data, String source) {
+        List<PointLight> lights = new ArrayList<>();
+        int ambient = MapData.DEFAULT_AMBIENT;
+
+        // Pass 1: measure the grid so it can be allocated exactly once, and read directives.
+        int rows = 0;
+        int cols = 0;
+        int row = 0;
+        int lineNumber = 1;
+        for (int start = 0, end; start < data.length; start = end + 1, lineNumber++) {
+            end = lineEnd(data, start);
+            int first = skipBlanks(data, start, end);
+            if (first < end && data[first] == '@') {
+                ambient = readDirective(data, first + 1, end, lights, ambient, source, lineNumber);
+                continue;
+            }
+
+            int tokens = 0;
+            int digits = 0;
+            for (int i = first; i < end; i++) {
+                byte b = data[i];
+                if (b >= '0' && b <= '9') {
+                    if (digits == 0) tokens++;
+                    if (++digits > MAX_DIGITS) throw tooLarge(source, lineNumber);
+                } else if (isBlank(b)) {
+                    digits = 0;
+                } else {
+                    throw unexpected(b, source, lineNumber);
+                }
+            }
+            if (tokens > 0) {
+                rows = row + 1;
+                cols = Math.max(cols, tokens);
+            }
+            row++;
+        }
+        if (rows == 0) {
+            throw new IllegalStateException("Map " + source + " contains no tiles");
+        }
+
+        // Pass 2: accumulate digits in place, no intermediate strings; pass 1 bounded every token
+        // to MAX_DIGITS, so the values cannot overflow.
+        int[][] grid = new int[rows][cols];
+        row = 0;
+        for (int start = 0, end; start < data.length && row < rows; start = end + 1) {
+            end = lineEnd(data, start);
+            int first = skipBlanks(data, start, end);
+            if (first < end && data[first] == '@') continue;
+
+            int[] cells = grid[row++];
+            int col = 0;
+            int value = 0;
+            boolean inToken = false;
+            for (int i = first; i < end; i++) {
+                byte b = data[i];
+                if (b >= '0' && b <= '9') {
+                    value = value * 10 + (b - '0');
+                    inToken = true;
+                } else if (inToken) {
+                    cells[col++] = value;
+                    value = 0;
+                    inToken = false;
+                }
+            }
+            if (inToken) {
+                cells[col] = value;
+            }
+        }
+        return new MapData(grid, lights, ambient);
+    }
+
+    private static int readDirective(byte[] data, int start, int end, List<PointLight> lights, int ambient,
+                                     String source, int lineNumber) {
+        int nameEnd = start;
+        while (nameEnd < end && !isBlank(data[nameEnd])) nameEnd++;
+        String name = new String(data, start, nameEnd - start, StandardCharsets.US_ASCII);
+
+        int[] args = new int[4];
+        int count = 0;
+        int i = skipBlanks(data, nameEnd, end);
+        while (i < end) {
+            if (count == args.length) {
+                throw new IllegalStateException("Too many arguments for @" + name + " at line " + lineNumber + " of " + source);
+            }
+            int value = 0;
+            int digits = 0;
+            while (i < end && data[i] >= '0' && data[i] <= '9') {
+                value = value * 10 + (data[i++] - '0');
+                if (++digits > MAX_DIGITS) throw tooLarge(source, lineNumber);
+            }
+            if (digits == 0 || (i < end && !isBlank(data[i]))) {
+                throw unexpected(data[i], source, lineNumber);
+            }
+            args[count++] = value;
+            i = skipBlanks(data, i, end);
+        }
+
+        if (name.equals("light") && count == 4) {
+            lights.add(new PointLight(args[0], args[1], args[2], args[3]));
+            return ambient;
+        }
+        if (name.equals("ambient") && count == 1) {
+            return args[0];
+        }
+        throw new IllegalStateException("Malformed directive @" + name + " at line " + lineNumber + " of " + source);
+    }
+
+    private static int lineEnd(byte[] data, int start) {
+        int i = start;
+        while (i < data.length && data[i] != '\n') i++;
+        return i;
+    }
+
+    private static int skipBlanks(byte[] data, int start, int end) {
+        int i = start;
+        while (i < end && isBlank(data[i])) i++;
+        return i;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static IllegalStateException tooLarge(String source, int lineNumber) {
+        return new IllegalStateException("Number longer than " + MAX_DIGITS + " digits at line "
+            + lineNumber + " of " + source);
+    }
+
+    private static IllegalStateException unexpected(byte b, String source, int lineNumber) {
+        return new IllegalStateException("Unexpected character '" + (char) (b & 0xFF) + "' at line "
+            + lineNumber + " of " + source);
+    }
+}
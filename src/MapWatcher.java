@@ -0,0 +1,104 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Watches the directories of file backed maps and pushes edits into {@link GraphStorage}.
+ * Only the file that changed is reparsed; GraphStorage then applies just the tiles that differ.
+ */
+public class MapWatcher implements Runnable {
+    // Editors usually save with several events in a row; wait for them to settle before reparsing.
+    private static final long SETTLE_MILLIS = 50;
+
+    private final GraphStorage storage;
+    private final Thread watchThread;
+    private volatile boolean running = true;
+    private WatchService watchService;
+
+    public MapWatcher(GraphStorage storage) {
+        this.storage = storage;
+        watchThread = new Thread(this, "MapWatcher");
+        watchThread.setDaemon(true);
+    }
+
+    public void start() {
+        Set<Path> dirs = new HashSet<>();
+        for (int id = 0; id < storage.getGraphCount(); id++) {
+            Path source = storage.getSource(id);
+            if (source != null) {
+                dirs.add(source.toAbsolutePath().normalize().getParent());
+            }
+        }
+        if (dirs.isEmpty()) return;
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : dirs) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            System.err.println("Map hot-reload disabled: " + e.getMessage());
+            return;
+        }
+        watchThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Set<Path> changed = new LinkedHashSet<>();
+            try {
+                WatchKey key = watchService.take();
+                collect(key, changed);
+                Thread.sleep(SETTLE_MILLIS);
+                while ((key = watchService.poll()) != null) {
+                    collect(key, changed);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            for (Path file : changed) {
+                reload(file);
+            }
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+            changed.add(dir.resolve((Path) event.context()));
+        }
+        key.reset();
+    }
+
+    private void reload(Path file) {
+        int id = storage.indexOfSource(file);
+        if (id < 0) return;
+
+        try {
+            storage.applyUpdate(id, MapParser.parse(file));
+        } catch (IllegalStateException e) {
+            // Keep the resident map; the next save will be picked up again.
+            System.err.println("Map reload skipped: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two packed RGB images pixel by pixel. The error of a pixel is its largest channel
+ * difference; pixels whose error exceeds the tolerance count as mismatched. Rows are compared in
+ * parallel bands that each keep their own totals, so no state is shared while comparing.
+ */
+public final class PixelDiff {
+    private static final int ROWS_PER_TASK = 16;
+
+    private PixelDiff() {
+    }
+
+    public static final class Result {
+        private final int width;
+        private final int height;
+        private final int tolerance;
+        private final int[] errors;
+        private final long mismatched;
+        private final long differing;
+        private final int maxError;
+        private final double meanError;
+
+        private Result(int width, int height, int tolerance, int[] errors, long mismatched, long differing,
+                       int maxError, double meanError) {
+            this.width = width;
+            this.height = height;
+            this.tolerance = tolerance;
+            this.errors = errors;
+            this.mismatched = mismatched;
+            this.differing = differing;
+            this.maxError = maxError;
+            this.meanError = meanError;
+        }
+
+        /** Pixels whose error is above the tolerance. */
+        public long getMismatched() {
+            return mismatched;
+        }
+
+        /** Pixels that differ at all, within the tolerance or not. */
+        public long getDiffering() {
+            return differing;
+        }
+
+        public double getMismatchedFraction() {
+            return (double) mismatched / ((long) width * height);
+        }
+
+        public int getMaxError() {
+            return maxError;
+        }
+
+        public double getMeanError() {
+            return meanError;
+        }
+
+        /**
+         * Per-pixel error map over a dimmed copy of {@code expected}: differences within the
+         * tolerance are blue, larger ones run from red to yellow as the error grows.
+         */
+        public BufferedImage heatmap(int[] expected) {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = new int[width * height];
+            for (int i = 0; i < pixels.length; i++) {
+                int error = errors[i];
+                if (error == 0) {
+                    int rgb = expected[i];
+                    int luma = (((rgb >> 16) & 0xFF) * 77 + ((rgb >> 8) & 0xFF) * 150 + (rgb & 0xFF) * 29) >> 10;
+                    pixels[i] = (luma << 16) | (luma << 8) | luma;
+                } else if (error <= tolerance) {
+                    pixels[i] = 0x0040FF;
+                } else {
+                    int green = Math.min(255, error * 2);
+                    pixels[i] = 0xFF0000 | (green << 8);
+                }
+            }
+            image.setRGB(0, 0, width, height, pixels, 0, width);
+            return image;
+        }
+    }
+
+    /**
+     * @param tolerance largest channel difference (0-255) that still counts as a match
+     */
+    public static Result compare(int[] expected, int[] actual, int width, int height, int tolerance) {
+        if (expected.length != width * height || actual.length != width * height) {
+            throw new IllegalArgumentException("Images are not " + width + "x" + height);
+        }
+        int[] errors = new int[width * height];
+        int tasks = (height + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        long[] mismatched = new long[tasks];
+        long[] differing = new long[tasks];
+        long[] errorSums = new long[tasks];
+        int[] maxErrors = new int[tasks];
+
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int from = task * ROWS_PER_TASK * width;
+            int to = Math.min(height, (task + 1) * ROWS_PER_TASK) * width;
+            long over = 0;
+            long changed = 0;
+            long sum = 0;
+            int max = 0;
+            for (int i = from; i < to; i++) {
+                int a = expected[i];
+                int b = actual[i];
+                if (((a ^ b) & 0xFFFFFF) == 0) continue;
+                int error = Math.max(Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)),
+                    Math.max(Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)), Math.abs((a & 0xFF) - (b & 0xFF))));
+                errors[i] = error;
+                changed++;
+                sum += error;
+                if (error > tolerance) over++;
+                if (error > max) max = error;
+            }
+            mismatched[task] = over;
+            differing[task] = changed;
+            errorSums[task] = sum;
+            maxErrors[task] = max;
+        });
+
+        long totalMismatched = 0;
+        long totalDiffering = 0;
+        long totalError = 0;
+        int maxError = 0;
+        for (int task = 0; task < tasks; task++) {
+            totalMismatched += mismatched[task];
+            totalDiffering += differing[task];
+            totalError += errorSums[task];
+            maxError = Math.max(maxError, maxErrors[task]);
+        }
+        double meanError = (double) totalError / ((long) width * height);
+        return new Result(width, height, tolerance, errors, totalMismatched, totalDiffering, maxError, meanError);
+    }
+}
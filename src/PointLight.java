@@ -0,0 +1,54 @@
+/**
+ * A light placed at the center of a map tile. Brightness is a percentage of full light and fades
+ * to nothing at {@code radius} tiles.
+ */
+public final class PointLight {
+    private final int tileX;
+    private final int tileY;
+    private final int radius;
+    private final int brightness;
+
+    public PointLight(int tileX, int tileY, int radius, int brightness) {
+        this.tileX = tileX;
+        this.tileY = tileY;
+        this.radius = radius;
+        this.brightness = brightness;
+    }
+
+    public int getTileX() {
+        return tileX;
+    }
+
+    public int getTileY() {
+        return tileY;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getBrightness() {
+        return brightness;
+    }
+
+    public double getX() {
+        return tileX + 0.5;
+    }
+
+    public double getY() {
+        return tileY + 0.5;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof PointLight)) return false;
+        PointLight light = (PointLight) other;
+        return tileX == light.tileX && tileY == light.tileY && radius == light.radius && brightness == light.brightness;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((tileX * 31 + tileY) * 31 + radius) * 31 + brightness;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Per-column results of the wall cast for one frame, stored as parallel arrays so the vector
+ * kernel can load and store a group of adjacent columns at once and the draw pass can read them
+ * back in order.
+ */
+final class RayHits {
+    double[] rayCos = new double[0];
+    double[] raySin = new double[0];
+    // Distance marched along the ray; MAX_DEPTH when the ray missed.
+    double[] distance = new double[0];
+    // Tile that was hit, 0 for a miss.
+    int[] tile = new int[0];
+    int[] cellX = new int[0];
+    int[] cellY = new int[0];
+    // Whether the ray entered the hit cell through a vertical (x) boundary.
+    boolean[] crossedX = new boolean[0];
+
+    void prepare(int width, double rad) {
+        if (distance.length != width) {
+            rayCos = new double[width];
+            raySin = new double[width];
+            distance = new double[width];
+            tile = new int[width];
+            cellX = new int[width];
+            cellY = new int[width];
+            crossedX = new boolean[width];
+        }
+        for (int col = 0; col < width; col++) {
+            double rayAngle = (rad - Raycaster.FOV * 0.5) + ((double) col / (double) width) * Raycaster.FOV;
+            raySin[col] = Math.sin(rayAngle);
+            rayCos[col] = Math.cos(rayAngle);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Scalar wall cast kernel filling {@link RayHits}: marches each column in fixed steps until it
+ * reaches a wall or leaves the map. {@code -Draycaster.kernel=vector} selects the Vector API kernel
+ * built from {@code src-vector/} instead; this one is the fallback when that class or its module
+ * is missing. On JDK 17 the vector kernel is slower, see {@code Benchmarks rays}.
+ */
+final class RayKernel {
+    static final WallCaster SCALAR = RayKernel::cast;
+    private static final String VECTOR_KERNEL = "VectorRayKernel";
+    private static final AtomicBoolean vectorMissingReported = new AtomicBoolean();
+
+    private RayKernel() {
+    }
+
+    /**
+     * A new wall cast for one renderer: the vector kernel if {@code -Draycaster.kernel=vector} asks
+     * for it and it can be loaded, the scalar march otherwise.
+     */
+    static WallCaster create() {
+        if (!"vector".equals(System.getProperty("raycaster.kernel"))) {
+            return SCALAR;
+        }
+        WallCaster vector = createVector();
+        if (vector == null) {
+            if (!vectorMissingReported.getAndSet(true)) {
+                System.err.println("Vector ray kernel not available, using the scalar march");
+            }
+            return SCALAR;
+        }
+        return vector;
+    }
+
+    /**
+     * A new vector kernel, or null if it was not built or {@code jdk.incubator.vector} is not loaded.
+     */
+    static WallCaster createVector() {
+        try {
+            return (WallCaster) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    static void cast(int[][] map, double posX, double posY, RayHits hits) {
+        int mapW = map[0].length;
+        int mapH = map.length;
+
+        for (int col = 0; col < hits.distance.length; col++) {
+            double rayCos = hits.rayCos[col];
+            double raySin = hits.raySin[col];
+
+            double distance = 0.0;
+            boolean hit = false;
+            int hitTile = 0;
+            int lastCellX = (int) posX;
+            int cellX = lastCellX;
+            int cellY = (int) posY;
+
+            while (distance < Raycaster.MAX_DEPTH) {
+                double sampleX = posX + rayCos * distance;
+                double sampleY = posY + raySin * distance;
+
+                if (sampleX < 0.0 || sampleX >= mapW || sampleY < 0.0 || sampleY >= mapH) {
+                    break;
+                }
+
+                lastCellX = cellX;
+                cellX = (int) sampleX;
+                cellY = (int) sampleY;
+                int tileValue = map[cellY][cellX];
+                if (tileValue != 0) {
+                    hit = true;
+                    hitTile = tileValue;
+                    break;
+                }
+
+                distance += Raycaster.STEP;
+            }
+
+            hits.distance[col] = hit ? distance : Raycaster.MAX_DEPTH;
+            hits.tile[col] = hitTile;
+            hits.cellX[col] = cellX;
+            hits.cellY[col] = cellY;
+            hits.crossedX[col] = lastCellX != cellX;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Per-column ray constants for a given screen width. They only depend on the width and the field
+ * of view, so each renderer builds one and keeps it until its width changes.
+ */
+public final class RayTable {
+    private final double[] relativeAngle;
+    private final double[] cosRelative;
+    private final double[] tanRelative;
+
+    public RayTable(int width) {
+        relativeAngle = new double[width];
+        cosRelative = new double[width];
+        tanRelative = new double[width];
+        for (int col = 0; col < width; col++) {
+            double rel = -Raycaster.FOV * 0.5 + ((double) col / (double) width) * Raycaster.FOV;
+            relativeAngle[col] = rel;
+            cosRelative[col] = Math.cos(rel);
+            tanRelative[col] = Math.tan(rel);
+        }
+    }
+
+    public int getWidth() {
+        return relativeAngle.length;
+    }
+
+    /** Angle of the column's ray relative to the view direction. */
+    public double relativeAngle(int col) {
+        return relativeAngle[col];
+    }
+
+    /** Factor turning a distance along the column's ray into a perpendicular distance. */
+    public double cosRelative(int col) {
+        return cosRelative[col];
+    }
+
+    /** Sideways offset of the column's ray per unit of forward distance. */
+    public double tanRelative(int col) {
+        return tanRelative[col];
+    }
+}
@@ -0,0 +1,232 @@
+import java.awt.Rectangle;
+import java.util.stream.IntStream;
+
+/**
+ * Casts one ray per screen column and writes the textured walls straight into a {@link FrameBuffer},
+ * then fills the floor and ceiling row by row. Distance fog is combined with the baked
+ * {@link LightMap}. Sprites, including the collectables, are drawn last by a {@link SpriteRenderer}.
+ */
+public class Raycaster {
+    static final double FOV = Math.PI / 3.0; // 60 degrees
+    static final double MAX_DEPTH = 50.0;
+    static final double STEP = 0.02;
+    private static final int MISS_COLOR = 0x333333; // white shaded to the 0.2 floor
+    private static final int ROWS_PER_TASK = 16;
+
+    private final TextureAtlas atlas;
+    private final RayHits hits = new RayHits();
+    private final WallCaster walls = RayKernel.create();
+    private final SpriteRenderer sprites = new SpriteRenderer();
+    private RayTable rays = new RayTable(0);
+    private double[] zBuffer = new double[0];
+    private int[] wallTops = new int[0];
+    private int[] wallBottoms = new int[0];
+    private double[] rowDistance = new double[0];
+    private int rowDistanceOffset = -1;
+
+    public Raycaster(TextureAtlas atlas) {
+        this.atlas = atlas;
+    }
+
+    /**
+     * Sprites drawn by this raycaster in addition to the collectables of the rendered snapshot.
+     */
+    public SpriteRenderer getSprites() {
+        return sprites;
+    }
+
+    /**
+     * Renders the world as of {@code world}; the snapshot is read once so a frame never mixes two
+     * poses.
+     */
+    public void render(FrameBuffer frame, int[][] map, LightMap lights, WorldSnapshot world) {
+        render(frame, new Rectangle(0, 0, frame.getWidth(), frame.getHeight()), map, lights, world);
+    }
+
+    /**
+     * Renders into the {@code viewport} sub-rectangle of {@code frame} only, as if it were a frame of
+     * that size; pixels outside it are not touched. Raycasters drawing disjoint viewports of one
+     * frame may run concurrently.
+     */
+    public void render(FrameBuffer frame, Rectangle viewport, int[][] map, LightMap lights, WorldSnapshot world) {
+        if (viewport.isEmpty() || !new Rectangle(frame.getWidth(), frame.getHeight()).contains(viewport)) {
+            throw new IllegalArgumentException("Viewport " + viewport + " is not inside the "
+                + frame.getWidth() + "x" + frame.getHeight() + " frame");
+        }
+        float posX = world.getPosX();
+        float posY = world.getPosY();
+        int screenW = viewport.width;
+        int screenH = viewport.height;
+        if (zBuffer.length != screenW) {
+            rays = new RayTable(screenW);
+            zBuffer = new double[screenW];
+            wallTops = new int[screenW];
+            wallBottoms = new int[screenW];
+        }
+
+        double rad = Math.toRadians(world.getAngleDeg());
+        int verticalOffset = screenH / 8; // push view down to simulate looking slightly upward
+        int stride = frame.getWidth();
+        int origin = viewport.y * stride + viewport.x;
+        int[] pixels = frame.getPixels();
+        drawWalls(pixels, stride, origin, screenW, screenH, map, lights, rays, posX, posY, rad, verticalOffset);
+        drawFloorAndCeiling(pixels, stride, origin, screenW, screenH, lights, rays, posX, posY, rad, verticalOffset);
+        sprites.render(pixels, stride, origin, screenW, screenH, world, lights, hits, rays, zBuffer, verticalOffset);
+    }
+
+    private void drawWalls(int[] pixels, int stride, int origin, int screenW, int screenH, int[][] map, LightMap lights,
+                           RayTable rays, double posX, double posY, double rad, int verticalOffset) {
+        hits.prepare(screenW, rad);
+        walls.cast(map, posX, posY, hits);
+
+        for (int col = 0; col < screenW; col++) {
+            boolean hit = hits.tile[col] != 0;
+            double perpendicular = hit ? hits.distance[col] * rays.cosRelative(col) : MAX_DEPTH;
+            zBuffer[col] = perpendicular;
+
+            double clampedDist = Math.max(perpendicular, 0.0001);
+            int wallHeight = Math.max(1, (int) (screenH / clampedDist));
+            // Walls are two units tall with the eye one unit up, so the horizon sits at verticalOffset.
+            int wallTop = Math.max(0, verticalOffset - wallHeight);
+            int wallBottomUnclamped = wallHeight + verticalOffset;
+            int wallBottom = Math.min(screenH - 1, wallBottomUnclamped);
+            wallTops[col] = wallTop;
+            wallBottoms[col] = wallBottom;
+
+            double shade = Math.max(0.2, 1.0 / (1.0 + clampedDist * 0.1));
+            if (hit) {
+                double rayCos = hits.rayCos[col];
+                double raySin = hits.raySin[col];
+                int cellX = hits.cellX[col];
+                int cellY = hits.cellY[col];
+                boolean crossedX = hits.crossedX[col];
+                double wallX = hitOffset(posX, posY, rayCos, raySin, cellX, cellY, crossedX);
+                int face = crossedX ? (rayCos > 0 ? LightMap.WEST : LightMap.EAST) : (raySin > 0 ? LightMap.NORTH : LightMap.SOUTH);
+                int lit = light(lights, cellX, cellY, face, (int) (shade * 256));
+                drawWallColumn(pixels, stride, origin + col, wallTop, wallBottom, wallBottomUnclamped, wallHeight,
+                    hits.tile[col], wallX, lit);
+            } else {
+                for (int y = wallTop, i = origin + wallTop * stride + col; y <= wallBottom; y++, i += stride) {
+                    pixels[i] = MISS_COLOR;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills every pixel above a wall with ceiling and below it with floor. A screen row maps to a
+     * single perpendicular distance, so per row the world position is a base point plus a sideways
+     * vector scaled by the column's tangent from the shared ray table; no trigonometry per pixel.
+     * Rows are independent and are filled in parallel bands.
+     */
+    private void drawFloorAndCeiling(int[] pixels, int stride, int origin, int screenW, int screenH, LightMap lights,
+                                     RayTable rays, double posX, double posY, double rad, int verticalOffset) {
+        double[] distances = rowDistances(screenH, verticalOffset);
+        int[] tops = wallTops;
+        int[] bottoms = wallBottoms;
+        double dirX = Math.cos(rad);
+        double dirY = Math.sin(rad);
+
+        int tasks = (screenH + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int end = Math.min(screenH, (task + 1) * ROWS_PER_TASK);
+            for (int y = task * ROWS_PER_TASK; y < end; y++) {
+                boolean floorRow = y > verticalOffset;
+                double rowDist = distances[y];
+                int level = TextureAtlas.levelFor(Math.abs(y - verticalOffset));
+                int sizeBits = TextureAtlas.SIZE_BITS - level;
+                int size = 1 << sizeBits;
+                int mask = size - 1;
+                int[] texels = floorRow ? atlas.floorTexels(level) : atlas.ceilingTexels(level);
+                int shade = (int) (Math.max(0.2, 1.0 / (1.0 + rowDist * 0.1)) * 256);
+
+                double baseX = (posX + dirX * rowDist) * size;
+                double baseY = (posY + dirY * rowDist) * size;
+                double sideX = -dirY * rowDist * size;
+                double sideY = dirX * rowDist * size;
+
+                int row = origin + y * stride;
+                for (int col = 0; col < screenW; col++) {
+                    if (floorRow ? y <= bottoms[col] : y >= tops[col]) continue;
+                    double tan = rays.tanRelative(col);
+                    int ix = (int) Math.floor(baseX + sideX * tan);
+                    int iy = (int) Math.floor(baseY + sideY * tan);
+                    int lit = light(lights, ix >> sizeBits, iy >> sizeBits, LightMap.FLOOR, shade);
+                    pixels[row + col] = shadeRgb(texels[(iy & mask) * size + (ix & mask)], lit);
+                }
+            }
+        });
+    }
+
+    private double[] rowDistances(int screenH, int verticalOffset) {
+        if (rowDistance.length != screenH || rowDistanceOffset != verticalOffset) {
+            double[] distances = new double[screenH];
+            for (int y = 0; y < screenH; y++) {
+                int fromHorizon = Math.abs(y - verticalOffset);
+                distances[y] = fromHorizon == 0 ? MAX_DEPTH : Math.min(MAX_DEPTH, (double) screenH / fromHorizon);
+            }
+            rowDistance = distances;
+            rowDistanceOffset = verticalOffset;
+        }
+        return rowDistance;
+    }
+
+    /**
+     * Exact position (0..1) along the face the ray entered. The march only knows which cell it
+     * stopped in, so the boundary crossing is recomputed analytically from the entered face.
+     */
+    private static double hitOffset(double posX, double posY, double rayCos, double raySin,
+                                    int cellX, int cellY, boolean crossedX) {
+        double wallX;
+        if (crossedX && rayCos != 0.0) {
+            double boundary = rayCos > 0 ? cellX : cellX + 1;
+            double t = (boundary - posX) / rayCos;
+            wallX = posY + raySin * t;
+            wallX -= Math.floor(wallX);
+            if (rayCos < 0) wallX = 1.0 - wallX;
+        } else if (raySin != 0.0) {
+            double boundary = raySin > 0 ? cellY : cellY + 1;
+            double t = (boundary - posY) / raySin;
+            wallX = posX + rayCos * t;
+            wallX -= Math.floor(wallX);
+            if (raySin > 0) wallX = 1.0 - wallX;
+        } else {
+            wallX = 0.0;
+        }
+        return wallX;
+    }
+
+    private void drawWallColumn(int[] pixels, int stride, int col, int top, int bottom, int bottomUnclamped,
+                                int wallHeight, int tile, double wallX, int shade) {
+        int level = TextureAtlas.levelFor(wallHeight);
+        int size = TextureAtlas.SIZE >> level;
+        int[] texels = atlas.texels(tile, level);
+        int texX = Math.min(size - 1, (int) (wallX * size));
+
+        // The texture repeats once per world unit, measured upward from the wall's base.
+        int sizeFx = size << 16;
+        int stepFx = (int) (((long) size << 16) / wallHeight);
+        long startFx = ((long) (bottomUnclamped - top) << 16) * size / wallHeight;
+        int posFx = (int) (startFx % sizeFx);
+
+        for (int y = top, i = top * stride + col; y <= bottom; y++, i += stride) {
+            int texY = size - 1 - (posFx >> 16);
+            pixels[i] = shadeRgb(texels[texY * size + texX], shade);
+            posFx -= stepFx;
+            if (posFx < 0) posFx += sizeFx;
+        }
+    }
+
+    /** Fog shade scaled by the baked light, capped at full brightness. */
+    private static int light(LightMap lights, int x, int y, int slot, int shade) {
+        if (lights == null) return shade;
+        return Math.min(LightMap.FULL, (shade * lights.get(x, y, slot)) >> 8);
+    }
+
+    static int shadeRgb(int rgb, int shade) {
+        int r = (((rgb >> 16) & 0xFF) * shade) >> 8;
+        int g = (((rgb >> 8) & 0xFF) * shade) >> 8;
+        int b = ((rgb & 0xFF) * shade) >> 8;
+        return (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,199 @@
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders many independent cameras without a window, e.g. for spectator feeds, thumbnails or
+ * agents playing the maze. All sessions read the same maps, light maps and textures; each one has
+ * its own raycaster and frame buffers. Frames run on a virtual thread per task when the JDK offers
+ * them, otherwise on a pool with one thread per core.
+ */
+public class RenderServer {
+    private final GraphStorage storage;
+    private final Collection collection;
+    private final ExecutorService executor;
+    private final Map<Integer, RenderSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSessionId = new AtomicInteger();
+    private final LongAdder frames = new LongAdder();
+    private long sampleNanos = System.nanoTime();
+    private long sampleFrames;
+
+    public RenderServer(GraphStorage storage, Collection collection) {
+        this.storage = storage;
+        this.collection = collection;
+        this.executor = createExecutor();
+    }
+
+    public RenderSession openSession(int graphId, int width, int height) {
+        if (storage.getGraph(graphId) == null) {
+            throw new IllegalArgumentException("No map with id " + graphId);
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid frame size " + width + "x" + height);
+        }
+        RenderSession session = new RenderSession(nextSessionId.getAndIncrement(), graphId, width, height, collection);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    public void closeSession(RenderSession session) {
+        sessions.remove(session.getId());
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Queues one frame of {@code session}. The caller owns the returned buffer until it is given
+     * back with {@link RenderSession#release(FrameBuffer)}. When all of the session's buffers are
+     * still held, or a blocking capture is full, this waits on the calling thread; render workers
+     * never wait for buffers.
+     */
+    public CompletableFuture<FrameBuffer> submit(RenderSession session) {
+        RenderSession.Pending pending;
+        try {
+            pending = session.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CompletableFuture<FrameBuffer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                FrameBuffer rendered = session.render(storage, pending);
+                frames.increment();
+                return rendered;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            session.cancel(pending);
+            throw e;
+        }
+    }
+
+    /**
+     * Renders one frame of every open session concurrently, releases them and returns how many
+     * were produced.
+     */
+    public int renderAll() {
+        List<RenderSession> open = new ArrayList<>(sessions.values());
+        List<CompletableFuture<FrameBuffer>> pending = new ArrayList<>(open.size());
+        for (RenderSession session : open) {
+            pending.add(submit(session).thenApply(frame -> {
+                session.release(frame);
+                return frame;
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+        return pending.size();
+    }
+
+    public long getTotalFrames() {
+        return frames.sum();
+    }
+
+    /**
+     * Frames per second summed over all sessions since the previous call.
+     */
+    public synchronized double sampleFramesPerSecond() {
+        long now = System.nanoTime();
+        long total = frames.sum();
+        double seconds = (now - sampleNanos) / 1_000_000_000.0;
+        double fps = seconds > 0 ? (total - sampleFrames) / seconds : 0.0;
+        sampleNanos = now;
+        sampleFrames = total;
+        return fps;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "RenderWorker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Batch mode: {@code java RenderServer [sessions] [width] [height] [seconds] [graphId] [captureDir]}
+     * spins cameras around the start of the maze and prints the aggregate frame rate once a second.
+     * With a capture directory every frame of every session is also written there as PNG.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 320;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 240;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int graphId = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        Path captureDir = args.length > 5 ? Paths.get(args[5]) : null;
+
+        Collection collection = new Collection();
+        collection.loadTestObjects();
+        RenderServer server = new RenderServer(GraphStorage.getInstance(), collection);
+        List<RenderSession> cameras = new ArrayList<>();
+        List<FrameCapture> captures = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            RenderSession camera = server.openSession(graphId, width, height);
+            if (captureDir != null) {
+                FrameCapture capture = new FrameCapture(captureDir, "session" + camera.getId() + "-",
+                    FrameCapture.Format.PNG, FrameCapture.Policy.BLOCK, 4, 1);
+                camera.setCapture(capture);
+                captures.add(capture);
+            }
+            cameras.add(camera);
+        }
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long nextReport = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        float angle = 0.0f;
+        server.sampleFramesPerSecond();
+        while (System.nanoTime() < end) {
+            for (int i = 0; i < cameras.size(); i++) {
+                cameras.get(i).setPose(1.5f, 1.5f, angle + i * (360.0f / cameras.size()));
+            }
+            server.renderAll();
+            angle += 2.0f;
+            if (System.nanoTime() >= nextReport) {
+                System.out.printf("%d sessions at %dx%d: %.1f fps total%n",
+                    sessionCount, width, height, server.sampleFramesPerSecond());
+                nextReport += TimeUnit.SECONDS.toNanos(1);
+            }
+        }
+        System.out.println("Frames rendered: " + server.getTotalFrames());
+        server.shutdown();
+        long written = 0;
+        for (FrameCapture capture : captures) {
+            capture.close();
+            written += capture.getFramesWritten();
+        }
+        if (captureDir != null) {
+            System.out.println("Frames written to " + captureDir + ": " + written);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One camera of the {@link RenderServer}. Owns its pose, its raycaster and a small pool of frame
+ * buffers; a rendered frame must be handed back with {@link #release(FrameBuffer)} once consumed,
+ * and submitting a frame waits for a free buffer when the consumer falls behind.
+ */
+public class RenderSession {
+    private static final int POOL_SIZE = 3;
+
+    private final int id;
+    private final int graphId;
+    private final int width;
+    private final int height;
+    private final Raycaster raycaster = new Raycaster(TextureAtlas.getInstance());
+    private final BlockingQueue<FrameBuffer> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    // Buffers handed out by acquire and not yet released; FrameBuffer has identity equality.
+    private final Set<FrameBuffer> checkedOut = ConcurrentHashMap.newKeySet();
+    private final AtomicLong framesRendered = new AtomicLong();
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private final World world;
+    private volatile FrameCapture capture;
+
+    RenderSession(int id, int graphId, int width, int height, Collection collection) {
+        this.id = id;
+        this.graphId = graphId;
+        this.width = width;
+        this.height = height;
+        this.world = new World(collection, 1.5f, 1.5f, 0.0f);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool.add(new FrameBuffer(width, height));
+        }
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getGraphId() {
+        return graphId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getFramesRendered() {
+        return framesRendered.get();
+    }
+
+    public void setPose(float x, float y, float angleDeg) {
+        world.setPose(x, y, angleDeg);
+    }
+
+    public WorldSnapshot snapshot() {
+        return world.snapshot();
+    }
+
+    /**
+     * Hands a copy of every frame rendered from now on to {@code capture}; null stops capturing.
+     */
+    public void setCapture(FrameCapture capture) {
+        this.capture = capture;
+    }
+
+    /**
+     * Returns a frame to the pool. Releasing a frame twice, or a buffer this session did not hand
+     * out, is ignored, so one buffer can never back two frames at once.
+     */
+    public void release(FrameBuffer frame) {
+        if (frame != null && checkedOut.remove(frame)) {
+            pool.offer(frame);
+        }
+    }
+
+    /**
+     * A pooled buffer claimed for one frame, plus the capture room reserved for it if any.
+     */
+    static final class Pending {
+        final FrameBuffer frame;
+        final FrameCapture capture;
+
+        Pending(FrameBuffer frame, FrameCapture capture) {
+            this.frame = frame;
+            this.capture = capture;
+        }
+    }
+
+    /**
+     * Waits on the calling thread for a free pooled buffer and, under a blocking capture, for room
+     * in the capture, so a consumer or encoder that falls behind stalls whoever submits for this
+     * session rather than a render worker.
+     */
+    Pending acquire() throws InterruptedException {
+        FrameBuffer frame = pool.take();
+        checkedOut.add(frame);
+        FrameCapture target = capture;
+        try {
+            return new Pending(frame, target != null && target.reserve() ? target : null);
+        } catch (InterruptedException e) {
+            release(frame);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back what {@link #acquire()} claimed for a frame that will not be rendered.
+     */
+    void cancel(Pending pending) {
+        release(pending.frame);
+        if (pending.capture != null) {
+            pending.capture.cancelReservation();
+        }
+    }
+
+    /**
+     * Renders the current pose into the buffer claimed by {@link #acquire()}, which is given back
+     * if rendering fails. Frames of one session are rendered one at a time since the raycaster
+     * keeps per-frame scratch state. Never blocks on buffers or the capture.
+     */
+    FrameBuffer render(GraphStorage storage, Pending pending) {
+        FrameBuffer frame = pending.frame;
+        renderLock.lock();
+        try {
+            int[][] map = storage.getGraph(graphId);
+            if (map == null) {
+                throw new IllegalStateException("No map with id " + graphId);
+            }
+            raycaster.render(frame, map, storage.getLightMap(graphId), world.snapshot());
+        } catch (RuntimeException e) {
+            cancel(pending);
+            throw e;
+        } finally {
+            renderLock.unlock();
+        }
+        framesRendered.incrementAndGet();
+        if (pending.capture != null) {
+            pending.capture.submitReserved(frame);
+        }
+        return frame;
+    }
+}
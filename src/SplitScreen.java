@@ -0,0 +1,143 @@
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.stream.IntStream;
+
+/**
+ * Local split screen: up to four players, each with their own {@link World} and raycaster, drawn
+ * side by side into one {@link FrameBuffer}. The map, light map, textures and per-width ray tables
+ * are shared, and since the viewports together cover the frame once, four players cost about as
+ * much to draw as one full-screen view. Every player sees the others as billboards.
+ */
+public class SplitScreen {
+    public static final int MAX_VIEWPORTS = 4;
+
+    private static final int GAP = 2;
+    private static final Color[] PLAYER_COLORS = {Color.RED, Color.CYAN, Color.GREEN, Color.ORANGE};
+
+    private final World[] worlds;
+    private final Raycaster[] raycasters;
+    // playerSprites[viewer][player]: how the viewer sees the player; null on the diagonal.
+    private final Sprite[][] playerSprites;
+    private Rectangle[] viewports = new Rectangle[0];
+    private int layoutWidth;
+    private int layoutHeight;
+
+    /**
+     * @param spawns x, y and angle in degrees of each player
+     */
+    public SplitScreen(Collection collection, float[][] spawns) {
+        int count = spawns.length;
+        if (count < 1 || count > MAX_VIEWPORTS) {
+            throw new IllegalArgumentException("Viewports must be between 1 and " + MAX_VIEWPORTS + ": " + count);
+        }
+        worlds = new World[count];
+        raycasters = new Raycaster[count];
+        playerSprites = new Sprite[count][count];
+        for (int i = 0; i < count; i++) {
+            worlds[i] = new World(collection, spawns[i][0], spawns[i][1], spawns[i][2]);
+            raycasters[i] = new Raycaster(TextureAtlas.getInstance());
+        }
+        for (int viewer = 0; viewer < count; viewer++) {
+            for (int player = 0; player < count; player++) {
+                if (player == viewer) continue;
+                Sprite sprite = new Sprite(Sprite.Kind.BILLBOARD, spawns[player][0], spawns[player][1], 0.4,
+                    PLAYER_COLORS[player]);
+                playerSprites[viewer][player] = sprite;
+                raycasters[viewer].getSprites().add(sprite);
+            }
+        }
+    }
+
+    public int getViewportCount() {
+        return worlds.length;
+    }
+
+    public World getWorld(int index) {
+        return worlds[index];
+    }
+
+    /**
+     * Bounds of viewport {@code index} in the frame last laid out.
+     */
+    public Rectangle getViewport(int index) {
+        return new Rectangle(viewports[index]);
+    }
+
+    public void layout(int width, int height) {
+        if (width == layoutWidth && height == layoutHeight) return;
+        viewports = layout(worlds.length, width, height);
+        layoutWidth = width;
+        layoutHeight = height;
+    }
+
+    /**
+     * Draws every player's view into their viewport of {@code frame}, all viewports in parallel.
+     */
+    public void render(FrameBuffer frame, int[][] map, LightMap lights) {
+        layout(frame.getWidth(), frame.getHeight());
+        WorldSnapshot[] snapshots = new WorldSnapshot[worlds.length];
+        for (int i = 0; i < worlds.length; i++) {
+            snapshots[i] = worlds[i].snapshot();
+        }
+        for (int viewer = 0; viewer < worlds.length; viewer++) {
+            for (int player = 0; player < worlds.length; player++) {
+                Sprite sprite = playerSprites[viewer][player];
+                if (sprite != null) {
+                    sprite.setPosition(snapshots[player].getPosX(), snapshots[player].getPosY());
+                }
+            }
+        }
+
+        Rectangle[] bounds = viewports;
+        IntStream.range(0, worlds.length).parallel().forEach(i -> {
+            if (!bounds[i].isEmpty()) {
+                raycasters[i].render(frame, bounds[i], map, lights, snapshots[i]);
+            }
+        });
+    }
+
+    /**
+     * One viewport fills the frame, two sit side by side, three and four share a two by two grid
+     * with the third one spanning the bottom row when alone. Viewports are separated by a
+     * {@value #GAP} pixel gap that is never drawn.
+     */
+    static Rectangle[] layout(int count, int width, int height) {
+        Rectangle[] result = new Rectangle[count];
+        int rows = count <= 2 ? 1 : 2;
+        int topHeight = rows == 1 ? height : Math.max(0, (height - GAP) / 2);
+        int index = 0;
+        for (int row = 0; row < rows; row++) {
+            int cells = row == 0 ? Math.min(count, 2) : count - 2;
+            int y = row == 0 ? 0 : topHeight + GAP;
+            int cellHeight = row == 0 ? topHeight : Math.max(0, height - y);
+            int cellWidth = cells == 1 ? width : Math.max(0, (width - GAP) / 2);
+            for (int cell = 0; cell < cells; cell++) {
+                int x = cell == 0 ? 0 : cellWidth + GAP;
+                int w = cell == 0 ? cellWidth : Math.max(0, width - x);
+                result[index++] = new Rectangle(x, y, w, cellHeight);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The first {@code count} open tile centers in reading order, each facing the open side, or
+     * the map's top-left tile if there are too few.
+     */
+    static float[][] spawnPoints(int[][] map, int count) {
+        float[][] spawns = new float[count][];
+        int found = 0;
+        for (int row = 1; row < map.length - 1 && found < count; row++) {
+            for (int col = 1; col < map[row].length - 1 && found < count; col++) {
+                if (map[row][col] != 0) continue;
+                float angle = map[row][col + 1] == 0 ? 0.0f : map[row + 1][col] == 0 ? 90.0f
+                    : map[row][col - 1] == 0 ? 180.0f : 270.0f;
+                spawns[found++] = new float[]{col + 0.5f, row + 0.5f, angle};
+            }
+        }
+        while (found < count) {
+            spawns[found++] = new float[]{1.5f, 1.5f, 0.0f};
+        }
+        return spawns;
+    }
+}
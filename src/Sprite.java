@@ -0,0 +1,73 @@
+import java.awt.Color;
+
+/**
+ * Something standing on the floor that is not a wall: an axis aligned cube or a round billboard
+ * that always faces the camera. Position is the center on the floor, size the edge length (or
+ * diameter) in world units. A sprite holds no per-frame state, so one sprite may be added to
+ * several renderers, even ones drawing at the same time.
+ */
+public final class Sprite {
+    public enum Kind {
+        CUBE,
+        BILLBOARD
+    }
+
+    // Indices into faceColors.
+    static final int FACE_MIN_X = 0;
+    static final int FACE_MAX_X = 1;
+    static final int FACE_MIN_Y = 2;
+    static final int FACE_MAX_Y = 3;
+    static final int FACE_TOP = 4;
+
+    private final Kind kind;
+    private final double size;
+    private volatile double x;
+    private volatile double y;
+    private volatile boolean visible = true;
+    final int[] faceColors;
+
+    public Sprite(Kind kind, double x, double y, double size, Color color) {
+        this.kind = kind;
+        this.x = x;
+        this.y = y;
+        this.size = size;
+        faceColors = new int[5];
+        faceColors[FACE_MIN_X] = new Color(
+            Math.max(0, color.getRed() - 40),
+            Math.max(0, color.getGreen() - 40),
+            Math.max(0, color.getBlue() - 40)).getRGB() & 0xFFFFFF;
+        faceColors[FACE_MAX_X] = color.darker().getRGB() & 0xFFFFFF;
+        faceColors[FACE_MIN_Y] = color.brighter().getRGB() & 0xFFFFFF;
+        faceColors[FACE_MAX_Y] = color.getRGB() & 0xFFFFFF;
+        faceColors[FACE_TOP] = color.brighter().getRGB() & 0xFFFFFF;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getSize() {
+        return size;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setPosition(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+}
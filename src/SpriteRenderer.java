@@ -0,0 +1,291 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Draws sprites into the frame buffer after the walls, clipped per column against the wall depth.
+ * Sprites are kept in one persistent far-to-near array that is re-sorted every frame with an
+ * insertion sort: the order barely changes between frames, so that is close to a single pass.
+ * The visible sprites are then drawn as one batch, split into column bands that render in parallel;
+ * each band paints every sprite in order, so no two threads write the same pixel.
+ */
+public class SpriteRenderer {
+    private static final int COLUMNS_PER_TASK = 64;
+    private static final double NEAR_CLIP = 0.8;
+
+    private Sprite[] order = new Sprite[16];
+    private int count;
+    // Squared distance to the camera, by slot in order.
+    private double[] depth = new double[16];
+
+    // Projection of this frame's visible sprites, by slot in visible. Kept here rather than on the
+    // sprites so renderers drawing concurrently can share a sprite.
+    private Sprite[] visible = new Sprite[16];
+    private int[] left = new int[16];
+    private int[] right = new int[16];
+    private double[] center = new double[16];
+    private double[] distance = new double[16];
+    private double[] perpendicular = new double[16];
+    private double[] lightFactor = new double[16];
+
+    // Sprites mirroring the collectables of the last snapshot, by object index.
+    private List<CollectableObject> syncedObjects;
+    private Sprite[] collectableSprites = new Sprite[0];
+
+    public void add(Sprite sprite) {
+        if (count == order.length) {
+            order = Arrays.copyOf(order, count * 2);
+            depth = Arrays.copyOf(depth, count * 2);
+        }
+        order[count++] = sprite;
+    }
+
+    public void remove(Sprite sprite) {
+        for (int i = 0; i < count; i++) {
+            if (order[i] == sprite) {
+                System.arraycopy(order, i + 1, order, i, count - i - 1);
+                order[--count] = null;
+                return;
+            }
+        }
+    }
+
+    public int getSpriteCount() {
+        return count;
+    }
+
+    /**
+     * Draws into the {@code screenW} x {@code screenH} viewport whose top left pixel is
+     * {@code pixels[origin]}, {@code stride} pixels per frame row.
+     */
+    void render(int[] pixels, int stride, int origin, int screenW, int screenH, WorldSnapshot world, LightMap lights,
+                RayHits hits, RayTable rays, double[] zBuffer, int verticalOffset) {
+        syncCollectables(world);
+
+        double posX = world.getPosX();
+        double posY = world.getPosY();
+        double rad = Math.toRadians(world.getAngleDeg());
+
+        for (int i = 0; i < count; i++) {
+            Sprite s = order[i];
+            double dx = s.getX() - posX;
+            double dy = s.getY() - posY;
+            depth[i] = dx * dx + dy * dy;
+        }
+        sortFarToNear();
+
+        int visibleCount = 0;
+        for (int i = 0; i < count; i++) {
+            Sprite s = order[i];
+            if (visibleCount == visible.length) {
+                growVisible(visibleCount * 2);
+            }
+            if (!s.isVisible() || !project(s, depth[i], visibleCount, posX, posY, rad, screenW)) continue;
+            lightFactor[visibleCount] = lights == null ? 1.0
+                : lights.get((int) Math.floor(s.getX()), (int) Math.floor(s.getY()), LightMap.FLOOR) / (double) LightMap.FULL;
+            visible[visibleCount++] = s;
+        }
+        if (visibleCount == 0) return;
+
+        int batchSize = visibleCount;
+        int tasks = (screenW + COLUMNS_PER_TASK - 1) / COLUMNS_PER_TASK;
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int from = task * COLUMNS_PER_TASK;
+            int to = Math.min(screenW, from + COLUMNS_PER_TASK) - 1;
+            for (int i = 0; i < batchSize; i++) {
+                Sprite s = visible[i];
+                int first = Math.max(from, left[i]);
+                int last = Math.min(to, right[i]);
+                if (first > last) continue;
+                if (s.getKind() == Sprite.Kind.CUBE) {
+                    drawCube(s, distance[i], lightFactor[i], pixels, stride, origin, screenH, first, last,
+                        posX, posY, hits, rays, zBuffer, verticalOffset);
+                } else {
+                    drawBillboard(s, distance[i], perpendicular[i], center[i], lightFactor[i], pixels, stride, origin,
+                        screenW, screenH, first, last, zBuffer, verticalOffset);
+                }
+            }
+        });
+    }
+
+    private void syncCollectables(WorldSnapshot world) {
+        List<CollectableObject> objects = world.objects();
+        if (objects != syncedObjects) {
+            for (Sprite s : collectableSprites) {
+                remove(s);
+            }
+            collectableSprites = new Sprite[objects.size()];
+            for (int i = 0; i < objects.size(); i++) {
+                CollectableObject obj = objects.get(i);
+                // Side length of the cube in world units is 0.5, centered in its tile.
+                collectableSprites[i] = new Sprite(Sprite.Kind.CUBE, obj.getX() + 0.5, obj.getY() + 0.5, 0.5, obj.getColor());
+                add(collectableSprites[i]);
+            }
+            syncedObjects = objects;
+        }
+        for (int i = 0; i < collectableSprites.length; i++) {
+            collectableSprites[i].setVisible(!world.isCollected(i));
+        }
+    }
+
+    private void growVisible(int capacity) {
+        visible = Arrays.copyOf(visible, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        center = Arrays.copyOf(center, capacity);
+        distance = Arrays.copyOf(distance, capacity);
+        perpendicular = Arrays.copyOf(perpendicular, capacity);
+        lightFactor = Arrays.copyOf(lightFactor, capacity);
+    }
+
+    private void sortFarToNear() {
+        for (int i = 1; i < count; i++) {
+            Sprite s = order[i];
+            double d = depth[i];
+            int j = i - 1;
+            while (j >= 0 && depth[j] < d) {
+                order[j + 1] = order[j];
+                depth[j + 1] = depth[j];
+                j--;
+            }
+            order[j + 1] = s;
+            depth[j + 1] = d;
+        }
+    }
+
+    /**
+     * Works out the screen columns the sprite can cover and stores them in visible slot
+     * {@code slot}; false if it is off screen or too close.
+     */
+    private boolean project(Sprite s, double depth, int slot, double posX, double posY, double rad, int screenW) {
+        double dx = s.getX() - posX;
+        double dy = s.getY() - posY;
+        double distance = Math.sqrt(depth);
+        // Don't render if too close (will be collected soon anyway)
+        if (distance < NEAR_CLIP) return false;
+
+        double relAngle = normalizeAngle(Math.atan2(dy, dx) - rad);
+        // Half the sprite's angular width, generous enough to cover a cube seen corner-on.
+        double halfAngle = Math.asin(Math.min(1.0, s.getSize() * 0.75 / distance));
+        if (Math.abs(relAngle) - halfAngle > Raycaster.FOV * 0.5) return false;
+
+        double columnsPerRadian = screenW / Raycaster.FOV;
+        double center = (relAngle + Raycaster.FOV * 0.5) * columnsPerRadian;
+        left[slot] = Math.max(0, (int) Math.floor(center - halfAngle * columnsPerRadian) - 1);
+        right[slot] = Math.min(screenW - 1, (int) Math.ceil(center + halfAngle * columnsPerRadian) + 1);
+        this.center[slot] = center;
+        this.distance[slot] = distance;
+        perpendicular[slot] = distance * Math.cos(relAngle);
+        return left[slot] <= right[slot];
+    }
+
+    private static void drawCube(Sprite s, double distance, double lightFactor, int[] pixels, int stride, int origin,
+                                 int screenH, int left, int right, double posX, double posY, RayHits hits, RayTable rays, double[] zBuffer,
+                                 int verticalOffset) {
+        double objSize = s.getSize();
+        double half = objSize * 0.5;
+        double minX = s.getX() - half;
+        double maxX = s.getX() + half;
+        double minY = s.getY() - half;
+        double maxY = s.getY() + half;
+        int topColor = Raycaster.shadeRgb(s.faceColors[Sprite.FACE_TOP],
+            (int) (Math.min(1.0, Math.max(0.5, 1.0 / (1.0 + distance * 0.06)) * lightFactor) * 256));
+
+        for (int col = left; col <= right; col++) {
+            double rayDirX = hits.rayCos[col];
+            double rayDirY = hits.raySin[col];
+
+            double tNear = Double.NEGATIVE_INFINITY;
+            double tFar = Double.POSITIVE_INFINITY;
+            int face = -1;
+
+            // X slabs
+            if (Math.abs(rayDirX) < 1e-9) {
+                if (posX < minX || posX > maxX) continue;
+            } else {
+                double t1 = (minX - posX) / rayDirX;
+                double t2 = (maxX - posX) / rayDirX;
+                double tEnter = Math.min(t1, t2);
+                if (tEnter > tNear) {
+                    tNear = tEnter;
+                    face = t1 < t2 ? Sprite.FACE_MIN_X : Sprite.FACE_MAX_X;
+                }
+                tFar = Math.min(tFar, Math.max(t1, t2));
+            }
+
+            // Y slabs
+            if (Math.abs(rayDirY) < 1e-9) {
+                if (posY < minY || posY > maxY) continue;
+            } else {
+                double t1 = (minY - posY) / rayDirY;
+                double t2 = (maxY - posY) / rayDirY;
+                double tEnter = Math.min(t1, t2);
+                if (tEnter > tNear) {
+                    tNear = tEnter;
+                    face = t1 < t2 ? Sprite.FACE_MIN_Y : Sprite.FACE_MAX_Y;
+                }
+                tFar = Math.min(tFar, Math.max(t1, t2));
+            }
+
+            if (tNear > tFar || tFar < 0 || tNear <= 0) continue;
+
+            double cosRel = rays.cosRelative(col);
+            double perpNear = tNear * cosRel;
+            if (perpNear <= NEAR_CLIP) continue;
+            if (perpNear >= zBuffer[col]) continue;
+
+            int fullHeightNear = (int) (screenH / perpNear);
+            int bottomNear = Math.min(screenH - 1, fullHeightNear + verticalOffset);
+            int topNear = Math.max(0, bottomNear - Math.max(2, (int) (fullHeightNear * objSize)));
+            if (bottomNear <= topNear) continue;
+
+            double perpFar = Math.max(tFar * cosRel, NEAR_CLIP);
+            int fullHeightFar = (int) (screenH / perpFar);
+            int bottomFar = Math.min(screenH - 1, fullHeightFar + verticalOffset);
+            int topFar = Math.max(0, bottomFar - Math.max(2, (int) (fullHeightFar * objSize)));
+
+            double shade = Math.min(1.0, Math.max(0.3, 1.0 / (1.0 + perpNear * 0.08)) * lightFactor);
+            int side = Raycaster.shadeRgb(s.faceColors[face], (int) (shade * 256));
+            // The top face shows between the far and near top edges when looking down on the cube.
+            int y = Math.min(topNear, topFar);
+            for (int i = origin + y * stride + col; y < topNear; y++, i += stride) {
+                pixels[i] = topColor;
+            }
+            for (int i = origin + y * stride + col; y <= bottomNear; y++, i += stride) {
+                pixels[i] = side;
+            }
+        }
+    }
+
+    private static void drawBillboard(Sprite s, double distance, double perp, double center, double lightFactor,
+                                      int[] pixels, int stride, int origin, int screenW, int screenH,
+                                      int left, int right, double[] zBuffer, int verticalOffset) {
+        if (perp <= NEAR_CLIP) return;
+
+        // Resting on the floor: the bottom sits where a wall at this depth would meet the floor.
+        double fullHeight = screenH / perp;
+        double radiusY = fullHeight * s.getSize() * 0.5;
+        double centerY = fullHeight + verticalOffset - radiusY;
+        double radiusX = Math.asin(Math.min(1.0, s.getSize() * 0.5 / distance)) * screenW / Raycaster.FOV;
+        double shade = Math.min(1.0, Math.max(0.3, 1.0 / (1.0 + perp * 0.08)) * lightFactor);
+        int color = Raycaster.shadeRgb(s.faceColors[Sprite.FACE_MAX_Y], (int) (shade * 256));
+
+        for (int col = left; col <= right; col++) {
+            if (perp >= zBuffer[col]) continue;
+            double u = (col + 0.5 - center) / radiusX;
+            if (u <= -1.0 || u >= 1.0) continue;
+            double halfSpan = Math.sqrt(1.0 - u * u) * radiusY;
+            int top = Math.max(0, (int) (centerY - halfSpan));
+            int bottom = Math.min(screenH - 1, (int) (centerY + halfSpan));
+            for (int y = top, i = origin + top * stride + col; y <= bottom; y++, i += stride) {
+                pixels[i] = color;
+            }
+        }
+    }
+
+    private static double normalizeAngle(double angle) {
+        while (angle > Math.PI) angle -= Math.PI * 2.0;
+        while (angle < -Math.PI) angle += Math.PI * 2.0;
+        return angle;
+    }
+}
@@ -0,0 +1,178 @@
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Wall textures keyed by tile id, plus the floor and ceiling, held as packed RGB int arrays with
+ * a full mip chain. A texture is read from {@code textures/<tile>.png} (or {@code floor.png},
+ * {@code ceiling.png}) when present, otherwise a pattern is generated from the tile's base color.
+ * Everything is built once and only read afterwards, so the atlas can be sampled from any number
+ * of render threads.
+ */
+public class TextureAtlas {
+    public static final int SIZE_BITS = 6;
+    public static final int SIZE = 1 << SIZE_BITS;
+    public static final int LEVELS = SIZE_BITS + 1;
+
+    private static final int MAX_TILE = 15;
+
+    // [tile][level] -> (SIZE >> level)^2 texels, row major
+    private final int[][][] textures;
+    private final int[][] fallback;
+    private final int[][] floor;
+    private final int[][] ceiling;
+
+    private TextureAtlas() {
+        textures = new int[MAX_TILE + 1][][];
+        for (int tile = 1; tile <= MAX_TILE; tile++) {
+            int[] base = readTexture(String.valueOf(tile));
+            if (base == null && tile <= 4) {
+                base = brickTexture(baseColor(tile));
+            }
+            if (base != null) {
+                textures[tile] = buildMips(base);
+            }
+        }
+        fallback = buildMips(brickTexture(Color.WHITE));
+
+        int[] floorBase = readTexture("floor");
+        floor = buildMips(floorBase != null ? floorBase : flagstoneTexture(new Color(90, 90, 90)));
+        int[] ceilingBase = readTexture("ceiling");
+        ceiling = buildMips(ceilingBase != null ? ceilingBase : flagstoneTexture(new Color(60, 60, 70)));
+    }
+
+    public static TextureAtlas getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Mip level whose texels best match a wall column drawn {@code projectedHeight} pixels tall.
+     */
+    public static int levelFor(int projectedHeight) {
+        if (projectedHeight >= SIZE) return 0;
+        int ratio = SIZE / Math.max(1, projectedHeight);
+        int level = 31 - Integer.numberOfLeadingZeros(ratio);
+        return Math.min(level, LEVELS - 1);
+    }
+
+    public int[] texels(int tile, int level) {
+        int[][] mips = tile > 0 && tile < textures.length && textures[tile] != null ? textures[tile] : fallback;
+        return mips[level];
+    }
+
+    public int[] floorTexels(int level) {
+        return floor[level];
+    }
+
+    public int[] ceilingTexels(int level) {
+        return ceiling[level];
+    }
+
+    public static Color baseColor(int tile) {
+        switch (tile) {
+            case 1:
+                return new Color(170, 170, 170);
+            case 2:
+                return new Color(90, 90, 90);
+            case 3:
+                return new Color(200, 40, 40);
+            case 4:
+                return new Color(120, 20, 20);
+            default:
+                return Color.WHITE;
+        }
+    }
+
+    private int[] readTexture(String name) {
+        Path file = Paths.get("textures", name + ".png");
+        if (Files.exists(file)) {
+            try {
+                BufferedImage source = ImageIO.read(file.toFile());
+                if (source != null) {
+                    BufferedImage scaled = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
+                    Graphics2D g = scaled.createGraphics();
+                    g.drawImage(source, 0, 0, SIZE, SIZE, null);
+                    g.dispose();
+                    return scaled.getRGB(0, 0, SIZE, SIZE, null, 0, SIZE);
+                }
+            } catch (IOException e) {
+                System.err.println("Texture " + file + " unreadable, using generated one: " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static int[] brickTexture(Color base) {
+        int[] texels = new int[SIZE * SIZE];
+        int brickH = SIZE / 4;
+        int brickW = SIZE / 2;
+        for (int y = 0; y < SIZE; y++) {
+            int course = y / brickH;
+            int shift = (course & 1) == 0 ? 0 : brickW / 2;
+            for (int x = 0; x < SIZE; x++) {
+                boolean mortar = y % brickH == 0 || (x + shift) % brickW == 0;
+                // Cheap deterministic grain so bricks are not perfectly flat.
+                int hash = (x * 73856093) ^ (y * 19349663) ^ (course * 83492791);
+                double factor = mortar ? 0.55 : 0.85 + ((hash >>> 8) & 15) / 100.0;
+                texels[y * SIZE + x] = scale(base.getRGB(), factor);
+            }
+        }
+        return texels;
+    }
+
+    private static int[] flagstoneTexture(Color base) {
+        int[] texels = new int[SIZE * SIZE];
+        int stone = SIZE / 2;
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                boolean joint = x % stone == 0 || y % stone == 0;
+                int hash = (x * 73856093) ^ (y * 19349663) ^ ((x / stone + 2 * (y / stone)) * 83492791);
+                double factor = joint ? 0.6 : 0.9 + ((hash >>> 8) & 15) / 150.0;
+                texels[y * SIZE + x] = scale(base.getRGB(), factor);
+            }
+        }
+        return texels;
+    }
+
+    private static int[][] buildMips(int[] base) {
+        int[][] mips = new int[LEVELS][];
+        mips[0] = base;
+        for (int level = 1; level < LEVELS; level++) {
+            int[] src = mips[level - 1];
+            int srcSize = SIZE >> (level - 1);
+            int size = srcSize >> 1;
+            int[] dst = new int[size * size];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int i = (y * 2) * srcSize + x * 2;
+                    dst[y * size + x] = average(src[i], src[i + 1], src[i + srcSize], src[i + srcSize + 1]);
+                }
+            }
+            mips[level] = dst;
+        }
+        return mips;
+    }
+
+    private static int average(int a, int b, int c, int d) {
+        int r = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF) + ((d >> 16) & 0xFF)) >> 2;
+        int g = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF) + ((d >> 8) & 0xFF)) >> 2;
+        int bl = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF)) >> 2;
+        return (r << 16) | (g << 8) | bl;
+    }
+
+    private static int scale(int rgb, double factor) {
+        int r = Math.min(255, (int) (((rgb >> 16) & 0xFF) * factor));
+        int g = Math.min(255, (int) (((rgb >> 8) & 0xFF) * factor));
+        int b = Math.min(255, (int) ((rgb & 0xFF) * factor));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    private static class Holder {
+        private static final TextureAtlas INSTANCE = new TextureAtlas();
+    }
+}
@@ -6,6 +6,7 @@ public class UI implements Runnable{
     JFrame mainFrame;
     MainPanel mainPanel;
     KeyBoard keyBoard;
+    MapWatcher mapWatcher;
 
     @Override
     public void run() {
@@ -23,6 +24,9 @@ public class UI implements Runnable{
 
         keyBoard.start();
 
+        mapWatcher = new MapWatcher(GraphStorage.getInstance());
+        mapWatcher.start();
+
         SwingUtilities.invokeLater(() -> mainPanel.requestFocusInWindow());
     }
 }
@@ -0,0 +1,7 @@
+/**
+ * Fills the wall hit of every column of a {@link RayHits} whose rays were set up by
+ * {@link RayHits#prepare}. Implementations may keep scratch state, so each renderer owns one.
+ */
+interface WallCaster {
+    void cast(int[][] map, double posX, double posY, RayHits hits);
+}
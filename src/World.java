@@ -0,0 +1,129 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simulation state shared by the input threads, the game tick and any number of renderers.
+ * Every change builds a new {@link WorldSnapshot} from the current one and publishes it with a
+ * compare-and-set, retrying if another thread got there first, so writers never block and readers
+ * never see a half-updated pose.
+ */
+public class World {
+    private static final double COLLECT_DISTANCE = 0.5;
+
+    private final Collection collection;
+    private final AtomicReference<WorldSnapshot> current;
+
+    public World(Collection collection, float posX, float posY, float angleDeg) {
+        this.collection = collection;
+        List<CollectableObject> objects = copyObjects(collection);
+        current = new AtomicReference<>(
+            new WorldSnapshot(0, posX, posY, angleDeg, objects, collectedFlags(objects, null), 0));
+    }
+
+    public WorldSnapshot snapshot() {
+        return current.get();
+    }
+
+    public void setPose(float x, float y, float angleDeg) {
+        WorldSnapshot before;
+        do {
+            before = current.get();
+        } while (!current.compareAndSet(before, before.withPose(x, y, angleDeg)));
+    }
+
+    /**
+     * Moves relative to the current heading, sliding along walls.
+     */
+    public void move(int[][] map, float forwardAmount, float strafeAmount) {
+        WorldSnapshot before;
+        WorldSnapshot after;
+        do {
+            before = current.get();
+            double rad = Math.toRadians(before.getAngleDeg());
+            float dx = (float) (Math.cos(rad) * forwardAmount - Math.sin(rad) * strafeAmount);
+            float dy = (float) (Math.sin(rad) * forwardAmount + Math.cos(rad) * strafeAmount);
+            long moved = Collider.move(map, before.getPosX(), before.getPosY(), dx, dy, Collider.PLAYER_RADIUS);
+            after = before.withPose(Collider.packedX(moved), Collider.packedY(moved), before.getAngleDeg());
+        } while (!current.compareAndSet(before, after));
+    }
+
+    public void rotate(float deltaDeg) {
+        WorldSnapshot before;
+        do {
+            before = current.get();
+        } while (!current.compareAndSet(before,
+            before.withPose(before.getPosX(), before.getPosY(), wrapAngle(before.getAngleDeg() + deltaDeg))));
+    }
+
+    /**
+     * Game tick: picks up collectables the player is standing on, takes over items other players
+     * sharing the {@link Collection} picked up, and records the map version. Returns the snapshot
+     * that was published.
+     */
+    public WorldSnapshot tick(int[][] map, int mapVersion) {
+        WorldSnapshot before;
+        WorldSnapshot after;
+        List<CollectableObject> picked = new ArrayList<>();
+        do {
+            picked.clear();
+            before = current.get();
+            List<CollectableObject> objects = before.objects();
+            if (objects.size() != collection.getWorldObjects().size()) {
+                objects = copyObjects(collection);
+            }
+            boolean[] collected = collectedFlags(objects, before);
+            for (int i = 0; i < objects.size(); i++) {
+                CollectableObject obj = objects.get(i);
+                if (collected[i] || map == null) continue;
+                if (!isWalkable(map, obj.getX(), obj.getY())) continue;
+
+                double dx = (obj.getX() + 0.5) - before.getPosX();
+                double dy = (obj.getY() + 0.5) - before.getPosY();
+                if (Math.sqrt(dx * dx + dy * dy) < COLLECT_DISTANCE) {
+                    collected[i] = true;
+                    picked.add(obj);
+                }
+            }
+            if (picked.isEmpty() && objects == before.objects() && mapVersion == before.getMapVersion()
+                && Arrays.equals(collected, before.collected())) {
+                return before;
+            }
+            after = before.withState(objects, collected, mapVersion);
+        } while (!current.compareAndSet(before, after));
+
+        // Only the thread whose snapshot won moves items into the bag.
+        for (CollectableObject obj : picked) {
+            collection.collect(obj);
+        }
+        return after;
+    }
+
+    private static List<CollectableObject> copyObjects(Collection collection) {
+        return Collections.unmodifiableList(new ArrayList<>(collection.getWorldObjects()));
+    }
+
+    private static boolean[] collectedFlags(List<CollectableObject> objects, WorldSnapshot previous) {
+        boolean[] flags = previous != null && previous.objects() == objects
+            ? Arrays.copyOf(previous.collected(), objects.size())
+            : new boolean[objects.size()];
+        // Items stay in the collection once collected, so the shared flag is the only sign that
+        // another World sharing it picked one up.
+        for (int i = 0; i < objects.size(); i++) {
+            flags[i] |= objects.get(i).isCollected();
+        }
+        return flags;
+    }
+
+    private static boolean isWalkable(int[][] map, int x, int y) {
+        if (x < 0 || y < 0 || y >= map.length || x >= map[0].length) return false;
+        return map[y][x] == 0;
+    }
+
+    private static float wrapAngle(float deg) {
+        float wrapped = deg % 360.0f;
+        return wrapped < 0 ? wrapped + 360.0f : wrapped;
+    }
+}
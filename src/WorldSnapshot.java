@@ -0,0 +1,76 @@
+import java.util.List;
+
+/**
+ * Immutable view of the simulation at one instant: the player pose, which collectables are still
+ * in the world and the map version it was taken against. Readers on any thread get a consistent
+ * picture without locking; a change always publishes a new snapshot.
+ */
+public final class WorldSnapshot {
+    private final long version;
+    private final float posX;
+    private final float posY;
+    private final float angleDeg;
+    private final List<CollectableObject> objects;
+    // Never written after construction; a change copies it into the next snapshot.
+    private final boolean[] collected;
+    private final int mapVersion;
+
+    WorldSnapshot(long version, float posX, float posY, float angleDeg, List<CollectableObject> objects,
+                  boolean[] collected, int mapVersion) {
+        this.version = version;
+        this.posX = posX;
+        this.posY = posY;
+        this.angleDeg = angleDeg;
+        this.objects = objects;
+        this.collected = collected;
+        this.mapVersion = mapVersion;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public float getPosX() {
+        return posX;
+    }
+
+    public float getPosY() {
+        return posY;
+    }
+
+    public float getAngleDeg() {
+        return angleDeg;
+    }
+
+    public int getObjectCount() {
+        return objects.size();
+    }
+
+    public CollectableObject getObject(int index) {
+        return objects.get(index);
+    }
+
+    public boolean isCollected(int index) {
+        return collected[index];
+    }
+
+    public int getMapVersion() {
+        return mapVersion;
+    }
+
+    List<CollectableObject> objects() {
+        return objects;
+    }
+
+    boolean[] collected() {
+        return collected;
+    }
+
+    WorldSnapshot withPose(float x, float y, float angle) {
+        return new WorldSnapshot(version + 1, x, y, angle, objects, collected, mapVersion);
+    }
+
+    WorldSnapshot withState(List<CollectableObject> newObjects, boolean[] newCollected, int newMapVersion) {
+        return new WorldSnapshot(version + 1, posX, posY, angleDeg, newObjects, newCollected, newMapVersion);
+    }
+}